@@ -0,0 +1,128 @@
+package com.skillsjava.showcase;
+
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Append-only history of {@link CombinedShowcaseDemo.CourseEvent}s stored as
+ * columns instead of objects.
+ * <p>
+ * A record in a {@code LinkedHashSet} costs the set entry, the record, an
+ * {@link Instant} and often its own copy of the title: well over 100 bytes.
+ * Here an event is one {@code long} (epoch nanoseconds) and one {@code int}
+ * (title id), 12 bytes, plus the growth slack of the arrays. Titles are
+ * dictionary-encoded: every distinct title is stored once, however many
+ * events share it.
+ * <p>
+ * As a {@link java.util.List} it is a {@link java.util.SequencedCollection}
+ * in insertion order. {@link #get(int)} builds a record view on each call;
+ * {@link #timestampNanos(int)} and {@link #title(int)} read the columns
+ * without allocating. Events can only be appended: {@code add} and
+ * {@code addLast} work, every other mutator throws
+ * {@link UnsupportedOperationException}. Instants must fall between 1677 and
+ * 2262, the range of a {@code long} of nanoseconds.
+ * <p>
+ * Not thread-safe; meant for loading and scanning long histories.
+ */
+final class ColumnarEventStore extends AbstractList<CombinedShowcaseDemo.CourseEvent> implements RandomAccess {
+
+    private static final int DEFAULT_CAPACITY = 1_024;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private long[] epochNanos;
+    private int[] titleIds;
+    private int size;
+    private final List<String> titles = new ArrayList<>();
+    private final Map<String, Integer> titleIdsByTitle = new HashMap<>();
+
+    ColumnarEventStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    ColumnarEventStore(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity cannot be negative");
+        }
+        this.epochNanos = new long[initialCapacity];
+        this.titleIds = new int[initialCapacity];
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code timestamp} does not fit in a
+     *                                  {@code long} of epoch nanoseconds
+     */
+    void add(String title, Instant timestamp) {
+        Objects.requireNonNull(title, "Title cannot be null");
+        Objects.requireNonNull(timestamp, "Timestamp cannot be null");
+        long nanos;
+        try {
+            nanos = Math.addExact(Math.multiplyExact(timestamp.getEpochSecond(), NANOS_PER_SECOND), timestamp.getNano());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Timestamp out of range: " + timestamp, e);
+        }
+        if (size == epochNanos.length) {
+            int capacity = Math.max(16, size + (size >> 1));
+            epochNanos = Arrays.copyOf(epochNanos, capacity);
+            titleIds = Arrays.copyOf(titleIds, capacity);
+        }
+        epochNanos[size] = nanos;
+        titleIds[size] = titleId(title);
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public boolean add(CombinedShowcaseDemo.CourseEvent event) {
+        Objects.requireNonNull(event, "Event cannot be null");
+        add(event.title(), event.eventTimestamp());
+        return true;
+    }
+
+    @Override
+    public CombinedShowcaseDemo.CourseEvent get(int index) {
+        return new CombinedShowcaseDemo.CourseEvent(title(index), Instant.ofEpochSecond(0, timestampNanos(index)));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    long timestampNanos(int index) {
+        Objects.checkIndex(index, size);
+        return epochNanos[index];
+    }
+
+    /** The pooled title: the same instance for every event with that title. */
+    String title(int index) {
+        Objects.checkIndex(index, size);
+        return titles.get(titleIds[index]);
+    }
+
+    int distinctTitles() {
+        return titles.size();
+    }
+
+    /** Releases the growth slack once a bulk load is done. */
+    void trimToSize() {
+        epochNanos = Arrays.copyOf(epochNanos, size);
+        titleIds = Arrays.copyOf(titleIds, size);
+    }
+
+    private int titleId(String title) {
+        Integer id = titleIdsByTitle.get(title);
+        if (id == null) {
+            id = titles.size();
+            titles.add(title);
+            titleIdsByTitle.put(title, id);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,85 @@
+package com.skillsjava.showcase;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.SequencedSet;
+
+/**
+ * Benchmark: heap per event and scan time of {@link ColumnarEventStore}
+ * against a {@code LinkedHashSet} of records, the previous storage of
+ * {@link CourseService}.
+ * <p>
+ * Events are one minute apart and titles repeat from a pool of 500 course
+ * names. Each title is a fresh {@code String}, as when parsed from a file or
+ * a socket; the set keeps every copy, the store one per distinct title. Heap
+ * is measured after a full GC, so run it with a single collector and no
+ * other load. Arguments (all optional): {@code events}.
+ */
+public final class ColumnarEventStoreBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarEventStoreBenchmark.class);
+    private static final int DISTINCT_TITLES = 500;
+
+    public static void main(String[] args) {
+        int eventCount = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Instant base = Instant.parse("2020-01-01T00:00:00Z");
+        logger.info("=== {} events, {} distinct titles ===", eventCount, DISTINCT_TITLES);
+
+        long before = usedHeap();
+        SequencedSet<CombinedShowcaseDemo.CourseEvent> records = new LinkedHashSet<>();
+        for (int i = 0; i < eventCount; i++) {
+            records.add(new CombinedShowcaseDemo.CourseEvent(title(i), base.plusSeconds(i * 60L)));
+        }
+        long recordBytes = usedHeap() - before;
+        logger.info(String.format("LinkedHashSet<CourseEvent>  %6.1f bytes/event", (double) recordBytes / eventCount));
+
+        before = usedHeap();
+        ColumnarEventStore columns = new ColumnarEventStore();
+        for (int i = 0; i < eventCount; i++) {
+            columns.add(title(i), base.plusSeconds(i * 60L));
+        }
+        columns.trimToSize();
+        long columnBytes = usedHeap() - before;
+        logger.info(String.format("ColumnarEventStore          %6.1f bytes/event (%.1fx less)",
+                (double) columnBytes / eventCount, (double) recordBytes / columnBytes));
+
+        // Scan: events of one title, the kind of query a history is loaded for
+        String wanted = title(7);
+        for (int round = 0; round < 3; round++) { // the first rounds warm up
+            long start = System.nanoTime();
+            long matches = 0;
+            for (CombinedShowcaseDemo.CourseEvent event : records) {
+                matches += event.title().equals(wanted) ? 1 : 0;
+            }
+            long recordNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long columnMatches = 0;
+            for (int i = 0; i < columns.size(); i++) {
+                columnMatches += columns.title(i).equals(wanted) ? 1 : 0;
+            }
+            long columnNanos = System.nanoTime() - start;
+            if (round == 2) {
+                logger.info(String.format("Scan by title: set %,.1f ms, columns %,.1f ms (%d / %d matches)",
+                        recordNanos / 1e6, columnNanos / 1e6, matches, columnMatches));
+            }
+        }
+        logger.info("Sizes: {} / {}", records.size(), columns.size());
+    }
+
+    private static String title(int i) {
+        // new String: a fresh copy per event, as deserialization would produce
+        return new String("Curso de Java " + (i % DISTINCT_TITLES));
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
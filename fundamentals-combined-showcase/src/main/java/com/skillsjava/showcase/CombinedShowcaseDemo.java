@@ -2,10 +2,15 @@ package com.skillsjava.showcase;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SubmissionPublisher;
 
 /**
  * Demo Showcase Combinado: Integrando Collections, Prevenção de NPE e API de
@@ -59,35 +64,104 @@ public final class CombinedShowcaseDemo {
                         e -> logger.info("Encontrado: {}", e.title()),
                         () -> logger.info("Evento 'Legacy Java 8' manipulado corretamente."));
 
+        // 4. Busca por índice: sem diferenciar maiúsculas e por prefixo (autocomplete)
+        logger.info("\n--- Busca Indexada por Título ---");
+        service.findEventByTitle("LANÇAMENTO DO JAVA 21")
+                .ifPresent(e -> logger.info("Encontrado ignorando maiúsculas: {}", e.title()));
+        service.addEvent("Deep Dive em Streams", Instant.now().plusSeconds(7200));
+        logger.info("Sugestões para 'deep d': {}", service.findEventsByTitlePrefix("deep d", 5).stream()
+                .map(CourseEvent::title)
+                .toList());
+
         List<CourseEvent> filtered = service.getEventsByYear(1995);
         logger.info("Quantidade de eventos filtrados (deve ser 0, não null): {}", filtered.size());
-    }
-}
-
-/**
- * Service class following the principles.
- */
-final class CourseService {
-    private static final Logger logger = LoggerFactory.getLogger(CourseService.class);
-    private final SequencedSet<CombinedShowcaseDemo.CourseEvent> events = new LinkedHashSet<>();
-
-    public void addEvent(String title, Instant timestamp) {
-        logger.debug("Adding event: {}", title);
-        events.add(new CombinedShowcaseDemo.CourseEvent(title, timestamp));
-    }
-
-    public Optional<CombinedShowcaseDemo.CourseEvent> findEventByTitle(String title) {
-        return events.stream()
-                .filter(e -> e.title().equalsIgnoreCase(title))
-                .findFirst();
-    }
 
-    public SequencedCollection<CombinedShowcaseDemo.CourseEvent> getAllEvents() {
-        return Collections.unmodifiableSequencedCollection(events);
-    }
-
-    public List<CombinedShowcaseDemo.CourseEvent> getEventsByYear(int year) {
-        // Safe return: empty list instead of null
-        return Collections.emptyList();
+        // 5. Consultas por período com índice temporal e fuso horário explícito
+        logger.info("\n--- Eventos por Ano (fuso configurável) ---");
+        Instant reveillon = Instant.parse("2024-01-01T02:30:00Z"); // 23:30 de 31/12/2023 em São Paulo
+        CourseService saoPaulo = new CourseService(ZoneId.of("America/Sao_Paulo"));
+        CourseService utc = new CourseService(ZoneId.of("UTC"));
+        saoPaulo.addEvent("Live de Fim de Ano", reveillon);
+        utc.addEvent("Live de Fim de Ano", reveillon);
+        logger.info("Eventos de 2023 em São Paulo: {} | em UTC: {}",
+                saoPaulo.getEventsByYear(2023).size(), utc.getEventsByYear(2023).size());
+        logger.info("Eventos de 2023 (serviço principal): {}", service.getEventsByYear(2023).stream()
+                .map(CourseEvent::title)
+                .toList());
+
+        // 6. Linha do tempo concorrente: produtores adicionam enquanto leitores usam snapshots
+        logger.info("\n--- Linha do Tempo Concorrente ---");
+        CourseService live = new CourseService();
+        Instant inicio = Instant.parse("2024-03-01T09:00:00Z");
+        SequencedCollection<CourseEvent> antes = live.getAllEvents();
+        CountDownLatch concluidos = new CountDownLatch(4);
+        int snapshots = 0;
+        try (ExecutorService produtores = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int p = 0; p < 4; p++) {
+                int produtor = p;
+                produtores.submit(() -> {
+                    try {
+                        for (int i = 0; i < 25; i++) {
+                            live.addEvent("Aula " + produtor + "." + i, inicio.plusSeconds(produtor * 100L + i));
+                        }
+                    } finally {
+                        concluidos.countDown();
+                    }
+                });
+            }
+            while (concluidos.getCount() > 0) {
+                // Leitura sem bloqueio: o snapshot nunca muda depois de obtido
+                SequencedCollection<CourseEvent> snapshot = live.getAllEvents();
+                if (!snapshot.isEmpty()) {
+                    snapshot.getLast();
+                }
+                snapshots++;
+                Thread.onSpinWait();
+            }
+        }
+        SequencedCollection<CourseEvent> depois = live.getAllEvents();
+        logger.info("Snapshot inicial continua com {} eventos; atual tem {} ({} snapshots lidos)",
+                antes.size(), depois.size(), snapshots);
+        logger.info("Primeiro: {} | Último: {} | Indexado por título: {}",
+                depois.getFirst().title(), depois.getLast().title(),
+                live.findEventByTitle(depois.getLast().title()).isPresent());
+
+        // 7. Ingestão em fluxo (Flow API) com janelas por tempo do evento, sem guardar o histórico
+        logger.info("\n--- Agregação em Janelas (Flow) ---");
+        EventWindowAggregator.Window porDia = EventWindowAggregator.Window.tumbling(Duration.ofDays(1));
+        EventWindowAggregator.Window ultimas6Horas =
+                EventWindowAggregator.Window.sliding(Duration.ofHours(6), Duration.ofHours(1));
+        List<EventWindowAggregator.WindowCount> janelas = new ArrayList<>();
+        EventWindowAggregator agregador = new EventWindowAggregator(List.of(porDia, ultimas6Horas),
+                Duration.ofMinutes(30), 3, 64, janelas::add);
+        try (SubmissionPublisher<CourseEvent> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(agregador);
+            Instant dia = Instant.parse("2024-05-01T00:00:00Z");
+            for (int minuto = 0; minuto < 3 * 24 * 60; minuto += 10) {
+                // Eventos chegam até 15 minutos fora de ordem, dentro da tolerância
+                int atraso = minuto % 30 == 20 ? 15 : 0;
+                publisher.submit(new CourseEvent("Check-in " + minuto, dia.plusSeconds((minuto - atraso) * 60L)));
+            }
+            publisher.submit(new CourseEvent("Check-in muito atrasado", dia.plusSeconds(3_600)));
+        }
+        agregador.completion().join();
+        janelas.stream()
+                .filter(janela -> janela.window().equals(porDia))
+                .forEach(janela -> logger.info("Dia {}: {} eventos", janela.start(), janela.count()));
+        logger.info("Janelas de 6 horas emitidas: {}, maior contagem: {}",
+                janelas.stream().filter(janela -> janela.window().equals(ultimas6Horas)).count(),
+                janelas.stream().filter(janela -> janela.window().equals(ultimas6Horas))
+                        .mapToLong(EventWindowAggregator.WindowCount::count).max().orElse(0));
+        logger.info("Mais recentes: {}", agregador.latest().stream().map(CourseEvent::title).toList());
+        logger.info("Estatísticas: {}", agregador.stats());
+
+        // 8. Histórico colunar: timestamps em long[] e títulos deduplicados
+        logger.info("\n--- Armazenamento Colunar ---");
+        ColumnarEventStore historico = new ColumnarEventStore();
+        historico.addAll(live.getAllEvents());
+        historico.addAll(service.getAllEvents());
+        logger.info("{} eventos, {} títulos distintos", historico.size(), historico.distinctTitles());
+        logger.info("Primeiro: {} | Último (visão de record): {}",
+                historico.getFirst().title(), historico.reversed().getFirst());
     }
 }
@@ -0,0 +1,167 @@
+package com.skillsjava.showcase;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.time.Year;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.SequencedCollection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Service class following the principles.
+ * <p>
+ * Titles are also indexed case-folded, so {@link #findEventByTitle} is a hash
+ * lookup instead of an {@code equalsIgnoreCase} scan over every event, and
+ * {@link #findEventsByTitlePrefix} walks a sorted map. Both indexes are
+ * updated by {@link #addEvent} and keep the first event added per title,
+ * which is what the scan returned.
+ * <p>
+ * Events are also indexed by timestamp in a sorted map, so time-range
+ * queries cost O(log n + k). Years start and end at midnight in the
+ * service's {@link ZoneId}, not in UTC: an event at 23:30 on 31 December in
+ * São Paulo belongs to that year even though it is already January in UTC.
+ * <p>
+ * The service is thread-safe. Events go into an {@link EventTimeline}, a
+ * lock-free append log, and the indexes are concurrent maps, so any number
+ * of threads can add events while others read without blocking.
+ * {@link #getAllEvents} returns an immutable snapshot; taking and reading it
+ * are wait-free. An event is appended to the timeline after it is indexed,
+ * so every event in a snapshot can also be found by title and timestamp.
+ * When threads add events with the same title at the same moment, the one
+ * kept by the title index is the first to reach it, not necessarily the
+ * first in the timeline.
+ */
+final class CourseService {
+    private static final Logger logger = LoggerFactory.getLogger(CourseService.class);
+    private final Set<CombinedShowcaseDemo.CourseEvent> uniqueEvents = ConcurrentHashMap.newKeySet();
+    private final EventTimeline<CombinedShowcaseDemo.CourseEvent> events = new EventTimeline<>();
+    private final Map<String, CombinedShowcaseDemo.CourseEvent> eventsByTitle = new ConcurrentHashMap<>();
+    private final NavigableMap<String, CombinedShowcaseDemo.CourseEvent> eventsBySortedTitle = new ConcurrentSkipListMap<>();
+    /** Events per timestamp, in the order they were added; appending never copies. */
+    private final NavigableMap<Instant, Queue<CombinedShowcaseDemo.CourseEvent>> eventsByTimestamp =
+            new ConcurrentSkipListMap<>();
+    private final ZoneId zone;
+
+    /**
+     * Years are computed in the system default time zone.
+     */
+    public CourseService() {
+        this(ZoneId.systemDefault());
+    }
+
+    public CourseService(ZoneId zone) {
+        this.zone = Objects.requireNonNull(zone, "Zone cannot be null");
+    }
+
+    public void addEvent(String title, Instant timestamp) {
+        logger.debug("Adding event: {}", title);
+        CombinedShowcaseDemo.CourseEvent event = new CombinedShowcaseDemo.CourseEvent(title, timestamp);
+        if (uniqueEvents.add(event)) {
+            String key = foldCase(title);
+            if (eventsByTitle.putIfAbsent(key, event) == null) {
+                eventsBySortedTitle.put(key, event);
+            }
+            // O(1) per add, however many events share the instant (bulk imports)
+            eventsByTimestamp.computeIfAbsent(timestamp, t -> new ConcurrentLinkedQueue<>()).add(event);
+            // Last, so an event seen in getAllEvents() is already in every index
+            events.append(event);
+        }
+    }
+
+    public Optional<CombinedShowcaseDemo.CourseEvent> findEventByTitle(String title) {
+        if (title == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(eventsByTitle.get(foldCase(title)));
+    }
+
+    /**
+     * Events whose title starts with {@code prefix}, ignoring case, in title
+     * order: one per title, at most {@code limit} (autocomplete).
+     */
+    public List<CombinedShowcaseDemo.CourseEvent> findEventsByTitlePrefix(String prefix, int limit) {
+        if (prefix == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        String from = foldCase(prefix);
+        List<CombinedShowcaseDemo.CourseEvent> matches = new ArrayList<>(Math.min(limit, 16));
+        for (Map.Entry<String, CombinedShowcaseDemo.CourseEvent> entry
+                : eventsBySortedTitle.tailMap(from, true).entrySet()) {
+            if (!entry.getKey().startsWith(from) || matches.size() == limit) {
+                break;
+            }
+            matches.add(entry.getValue());
+        }
+        return matches;
+    }
+
+    /**
+     * Immutable snapshot of the events added so far, in insertion order. It
+     * does not change when more events are added; call again to see them.
+     */
+    public SequencedCollection<CombinedShowcaseDemo.CourseEvent> getAllEvents() {
+        return events.snapshot();
+    }
+
+    /**
+     * Events of a calendar year in the service's zone, in timestamp order.
+     */
+    public List<CombinedShowcaseDemo.CourseEvent> getEventsByYear(int year) {
+        Instant from = Year.of(year).atDay(1).atStartOfDay(zone).toInstant();
+        Instant to = Year.of(year).plusYears(1).atDay(1).atStartOfDay(zone).toInstant();
+        return getEventsBetween(from, to);
+    }
+
+    /**
+     * Events with {@code from <= timestamp < to}, in timestamp order.
+     */
+    public List<CombinedShowcaseDemo.CourseEvent> getEventsBetween(Instant from, Instant to) {
+        Objects.requireNonNull(from, "From cannot be null");
+        Objects.requireNonNull(to, "To cannot be null");
+        if (!from.isBefore(to)) {
+            // Safe return: empty list instead of null
+            return Collections.emptyList();
+        }
+        List<CombinedShowcaseDemo.CourseEvent> matches = new ArrayList<>();
+        for (Queue<CombinedShowcaseDemo.CourseEvent> sameInstant
+                : eventsByTimestamp.subMap(from, true, to, false).values()) {
+            matches.addAll(sameInstant);
+        }
+        return Collections.unmodifiableList(matches);
+    }
+
+    /**
+     * Index key for a title: two titles get the same key exactly when
+     * {@code equalsIgnoreCase} considers them equal (per code point, upper
+     * then lower case, independent of the default locale).
+     */
+    static String foldCase(String title) {
+        StringBuilder folded = null;
+        for (int i = 0; i < title.length(); ) {
+            int codePoint = title.codePointAt(i);
+            int foldedCodePoint = Character.toLowerCase(Character.toUpperCase(codePoint));
+            if (folded == null && foldedCodePoint != codePoint) {
+                // Only allocate once a character actually changes
+                folded = new StringBuilder(title.length()).append(title, 0, i);
+            }
+            if (folded != null) {
+                folded.appendCodePoint(foldedCodePoint);
+            }
+            i += Character.charCount(codePoint);
+        }
+        return folded == null ? title : folded.toString();
+    }
+}
@@ -0,0 +1,224 @@
+package com.skillsjava.showcase;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.SequencedSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Benchmark: {@link CourseService} title and time-range lookups with 1M events.
+ * <p>
+ * Compares the indexed {@code findEventByTitle} with the previous
+ * implementation (a stream scan with {@code equalsIgnoreCase}) and times
+ * prefix search and one-hour range queries. Lookups use titles in a
+ * different case than stored. Then times concurrent appends to the
+ * {@link EventTimeline} against a locked {@code LinkedHashSet}, with one
+ * thread reading the newest event meanwhile, and finally checks that racing
+ * writers never leave an append unpublished. A plain {@code nanoTime} harness; compare
+ * orders of magnitude.
+ * Arguments (all optional): {@code events}.
+ */
+public final class CourseServiceBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(CourseServiceBenchmark.class);
+    private static final int SCAN_LOOKUPS = 50;
+    private static final int INDEXED_LOOKUPS = 1_000_000;
+    private static final int QUERIES = 4_096;
+    private static final int PRODUCERS = 4;
+    private static final int PUBLICATION_ROUNDS = 5_000;
+
+    public static void main(String[] args) {
+        int eventCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        CourseService service = new CourseService();
+        Instant base = Instant.parse("2020-01-01T00:00:00Z");
+
+        for (int i = 0; i < eventCount; i++) {
+            service.addEvent(title(i), base.plusSeconds(i * 60L));
+        }
+        // Queries are built up front so only the lookups are timed
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String[] titles = new String[QUERIES];
+        String[] prefixes = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            titles[i] = title(random.nextInt(eventCount)).toUpperCase(Locale.ROOT);
+            prefixes[i] = titles[i].substring(0, 16);
+        }
+        logger.info("=== CourseService lookups with {} events ===", eventCount);
+
+        long found = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < SCAN_LOOKUPS; i++) {
+            String title = titles[i];
+            found += service.getAllEvents().stream()
+                    .filter(e -> e.title().equalsIgnoreCase(title))
+                    .findFirst()
+                    .isPresent() ? 1 : 0;
+        }
+        logger.info(String.format("stream + equalsIgnoreCase       %,10.1f ns/op",
+                (double) (System.nanoTime() - start) / SCAN_LOOKUPS));
+
+        for (int round = 0; round < 2; round++) { // the first round warms up
+            start = System.nanoTime();
+            for (int i = 0; i < INDEXED_LOOKUPS; i++) {
+                Optional<CombinedShowcaseDemo.CourseEvent> event = service.findEventByTitle(titles[i & (QUERIES - 1)]);
+                found += event.isPresent() ? 1 : 0;
+            }
+        }
+        logger.info(String.format("findEventByTitle (index)        %,10.1f ns/op",
+                (double) (System.nanoTime() - start) / INDEXED_LOOKUPS));
+
+        for (int round = 0; round < 2; round++) {
+            start = System.nanoTime();
+            for (int i = 0; i < INDEXED_LOOKUPS; i++) {
+                found += service.findEventsByTitlePrefix(prefixes[i & (QUERIES - 1)], 10).size();
+            }
+        }
+        logger.info(String.format("findEventsByTitlePrefix (10)    %,10.1f ns/op",
+                (double) (System.nanoTime() - start) / INDEXED_LOOKUPS));
+
+        // Events are one minute apart, so an hour holds 60 of them
+        int rangeQueries = INDEXED_LOOKUPS / 10;
+        for (int round = 0; round < 2; round++) {
+            start = System.nanoTime();
+            for (int i = 0; i < rangeQueries; i++) {
+                Instant from = base.plusSeconds(random.nextLong(eventCount) * 60);
+                found += service.getEventsBetween(from, from.plusSeconds(3_600)).size();
+            }
+        }
+        logger.info(String.format("getEventsBetween (1 hour)       %,10.1f ns/op",
+                (double) (System.nanoTime() - start) / rangeQueries));
+        logger.info("Matches: {}", found);
+
+        // The events are built up front so only appends and reads are timed
+        CombinedShowcaseDemo.CourseEvent[] appended = new CombinedShowcaseDemo.CourseEvent[eventCount];
+        for (int i = 0; i < eventCount; i++) {
+            appended[i] = new CombinedShowcaseDemo.CourseEvent(title(i), base.plusSeconds(i * 60L));
+        }
+        logger.info("=== {} appends from {} threads, one reader ===", eventCount, PRODUCERS);
+        for (int round = 0; round < 2; round++) {
+            timeAppends("synchronized LinkedHashSet", appended, new LockedLog());
+            timeAppends("EventTimeline (lock-free)", appended, new TimelineLog());
+        }
+        checkPublication(appended);
+    }
+
+    /**
+     * Stress check for the publication race: in every round {@code PRODUCERS}
+     * threads start together and append a few events each to a fresh
+     * timeline. Once they have all returned, every append must be published;
+     * a lost wake-up between two writers would leave the size short.
+     */
+    private static void checkPublication(CombinedShowcaseDemo.CourseEvent[] appended) {
+        int perThread = 4;
+        int expected = PRODUCERS * perThread;
+        int lost = 0;
+        for (int round = 0; round < PUBLICATION_ROUNDS; round++) {
+            EventTimeline<CombinedShowcaseDemo.CourseEvent> timeline = new EventTimeline<>();
+            CountDownLatch go = new CountDownLatch(1);
+            Thread[] writers = new Thread[PRODUCERS];
+            for (int p = 0; p < PRODUCERS; p++) {
+                int from = p * perThread;
+                writers[p] = Thread.ofPlatform().daemon().start(() -> {
+                    try {
+                        go.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int i = from; i < from + perThread; i++) {
+                        timeline.append(appended[i % appended.length]);
+                    }
+                });
+            }
+            go.countDown();
+            for (Thread writer : writers) {
+                try {
+                    writer.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted during publication check", e);
+                }
+            }
+            if (timeline.size() != expected) {
+                lost++;
+            }
+        }
+        logger.info("Publication check: {} rounds of {} racing writers, {} with unpublished appends",
+                PUBLICATION_ROUNDS, PRODUCERS, lost);
+        if (lost > 0) {
+            throw new IllegalStateException(lost + " rounds left appends unpublished");
+        }
+    }
+
+    /**
+     * {@code PRODUCERS} threads append slices of {@code appended} while the
+     * caller reads the newest element as fast as it can.
+     */
+    private static void timeAppends(String name, CombinedShowcaseDemo.CourseEvent[] appended, AppendLog log) {
+        int slice = appended.length / PRODUCERS;
+        CountDownLatch done = new CountDownLatch(PRODUCERS);
+        long start = System.nanoTime();
+        for (int p = 0; p < PRODUCERS; p++) {
+            int from = p * slice;
+            Thread.ofPlatform().daemon().start(() -> {
+                for (int i = from; i < from + slice; i++) {
+                    log.append(appended[i]);
+                }
+                done.countDown();
+            });
+        }
+        long reads = 0;
+        while (done.getCount() > 0) {
+            reads += log.last() == null ? 0 : 1;
+        }
+        long elapsed = System.nanoTime() - start;
+        logger.info(String.format("%-27s %,8.1f ns/append, %,12d reads",
+                name, (double) elapsed / (slice * PRODUCERS), reads));
+    }
+
+    private interface AppendLog {
+        void append(CombinedShowcaseDemo.CourseEvent event);
+
+        CombinedShowcaseDemo.CourseEvent last();
+    }
+
+    /** The previous storage: a {@code LinkedHashSet}, which needs a lock to be shared. */
+    private static final class LockedLog implements AppendLog {
+        private final SequencedSet<CombinedShowcaseDemo.CourseEvent> events = new LinkedHashSet<>();
+
+        @Override
+        public synchronized void append(CombinedShowcaseDemo.CourseEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public synchronized CombinedShowcaseDemo.CourseEvent last() {
+            return events.isEmpty() ? null : events.getLast();
+        }
+    }
+
+    private static final class TimelineLog implements AppendLog {
+        private final EventTimeline<CombinedShowcaseDemo.CourseEvent> events = new EventTimeline<>();
+
+        @Override
+        public void append(CombinedShowcaseDemo.CourseEvent event) {
+            events.append(event);
+        }
+
+        @Override
+        public CombinedShowcaseDemo.CourseEvent last() {
+            EventTimeline.Snapshot<CombinedShowcaseDemo.CourseEvent> snapshot = events.snapshot();
+            return snapshot.isEmpty() ? null : snapshot.getLast();
+        }
+    }
+
+    private static String title(int i) {
+        return "Curso de Java " + i + " - Módulo " + (i % 12);
+    }
+}
@@ -0,0 +1,136 @@
+package com.skillsjava.showcase;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractList;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free append-only log with immutable snapshots.
+ * <p>
+ * Elements live in chunks that double in size (1024, 2048, 4096, ...), so
+ * the chunk directory has a fixed length and appending never copies or
+ * moves anything. A writer claims a slot with one atomic increment, writes
+ * it, and then advances the published size past every slot that has been
+ * written so far. A writer that is slow to fill its slot only holds back
+ * the published size; the next writer to finish carries it forward.
+ * <p>
+ * {@link #snapshot()} reads the published size once. The slots below it are
+ * never written again, so the snapshot is immutable and every read of it is
+ * wait-free: no locks, no retries, no copying.
+ * Appends are visible in the order of their slots, which is the order in
+ * which writers claimed them.
+ */
+final class EventTimeline<E> {
+
+    private static final int FIRST_CHUNK_BITS = 10;
+    private static final int FIRST_CHUNK = 1 << FIRST_CHUNK_BITS;
+    /** Chunk {@code k} holds {@code FIRST_CHUNK << k} elements. */
+    private static final int CHUNKS = Integer.SIZE - 1 - FIRST_CHUNK_BITS;
+    /** Sum of all chunk sizes: {@code 2^31 - 1024}. */
+    private static final int CAPACITY = FIRST_CHUNK * ((1 << CHUNKS) - 1);
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private final AtomicReferenceArray<Object[]> chunks = new AtomicReferenceArray<>(CHUNKS);
+    private final AtomicInteger claimed = new AtomicInteger();
+    private final AtomicInteger published = new AtomicInteger();
+
+    /**
+     * Appends {@code element}; it is visible to snapshots taken once every
+     * earlier claimed slot has been written too.
+     */
+    void append(E element) {
+        Objects.requireNonNull(element, "Element cannot be null");
+        int index = claimed.getAndIncrement();
+        if (index < 0 || index >= CAPACITY) {
+            claimed.decrementAndGet();
+            throw new IllegalStateException("Timeline is full");
+        }
+        // Volatile, not release: each writer stores its slot and then reads the
+        // others' in publish(). Only sequentially consistent accesses make at
+        // least one of two racing writers see the other's slot; with
+        // release/acquire both may miss, and the last slot stays unpublished.
+        SLOTS.setVolatile(chunkFor(index, true), offsetOf(index), element);
+        publish();
+    }
+
+    /** Immutable view of everything published so far, in append order. */
+    Snapshot<E> snapshot() {
+        return new Snapshot<>(chunks, published.get());
+    }
+
+    int size() {
+        return published.get();
+    }
+
+    /**
+     * Moves the published size forward over every written slot. Lock-free:
+     * a failed CAS means another writer made progress.
+     */
+    private void publish() {
+        while (true) {
+            int size = published.get();
+            if (size == claimed.get()) {
+                return;
+            }
+            Object[] chunk = chunkFor(size, false);
+            if (chunk == null || SLOTS.getVolatile(chunk, offsetOf(size)) == null) {
+                return; // that slot's writer will publish it
+            }
+            published.compareAndSet(size, size + 1);
+        }
+    }
+
+    private Object[] chunkFor(int index, boolean create) {
+        int chunkIndex = chunkIndexOf(index);
+        Object[] chunk = chunks.get(chunkIndex);
+        if (chunk == null && create) {
+            chunks.compareAndSet(chunkIndex, null, new Object[FIRST_CHUNK << chunkIndex]);
+            chunk = chunks.get(chunkIndex);
+        }
+        return chunk;
+    }
+
+    /** Chunk {@code k} starts at {@code FIRST_CHUNK * (2^k - 1)}. */
+    private static int chunkIndexOf(int index) {
+        int position = (index >>> FIRST_CHUNK_BITS) + 1;
+        return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(position);
+    }
+
+    private static int offsetOf(int index) {
+        return index - (int) ((long) FIRST_CHUNK * ((1L << chunkIndexOf(index)) - 1));
+    }
+
+    /**
+     * Fixed-size view of the first {@code size} elements. As a {@link java.util.List}
+     * it is a {@link java.util.SequencedCollection}: {@code getFirst()},
+     * {@code getLast()} and {@code reversed()} work, and every mutator throws
+     * {@link UnsupportedOperationException}.
+     */
+    static final class Snapshot<E> extends AbstractList<E> implements RandomAccess {
+
+        private final AtomicReferenceArray<Object[]> chunks;
+        private final int size;
+
+        private Snapshot(AtomicReferenceArray<Object[]> chunks, int size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E get(int index) {
+            Objects.checkIndex(index, size);
+            // Published slots are never rewritten; reading the size made them visible
+            return (E) chunks.get(chunkIndexOf(index))[offsetOf(index)];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.skillsjava.showcase;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * Streaming consumer of {@link CombinedShowcaseDemo.CourseEvent}s that counts
+ * them in event-time windows, without keeping the events.
+ * <p>
+ * Subscribe it to any {@link Flow.Publisher} (a {@code SubmissionPublisher},
+ * a reactive driver, ...). It asks for {@code batchSize} events at a time and
+ * asks for more once half of them are processed, so a fast publisher cannot
+ * flood it.
+ * <p>
+ * Each {@link Window} is cut into panes of one {@code slide}: a pane is a
+ * single counter, and a sliding window's count is the sum of the panes it
+ * covers. Memory is one counter per pane still open plus the latest
+ * {@code latestCount} events, however many events flow through.
+ * <p>
+ * Event time, not arrival time, decides the window. Events may arrive out of
+ * order by up to {@code allowedLateness}: the watermark is the latest event
+ * time seen minus that lateness. A window is emitted to the results consumer
+ * once its end is at or before the watermark, and never changes afterwards.
+ * Events older than the watermark are counted as late and dropped.
+ * {@link #onComplete()} emits every window still open.
+ * <p>
+ * Empty windows are not emitted. Windows are emitted in order of their end
+ * for each {@link Window}.
+ */
+final class EventWindowAggregator implements Flow.Subscriber<CombinedShowcaseDemo.CourseEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventWindowAggregator.class);
+
+    private final int batchSize;
+    private final long allowedLatenessMillis;
+    private final int latestCount;
+    private final Consumer<WindowCount> results;
+    private final List<WindowState> windows = new ArrayList<>();
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    /** Guarded by this. Oldest of the latest events on top. */
+    private final PriorityQueue<CombinedShowcaseDemo.CourseEvent> latest =
+            new PriorityQueue<>(Comparator.comparing(CombinedShowcaseDemo.CourseEvent::eventTimestamp));
+    /** This and the fields below are guarded by this. */
+    private long maxEventMillis = Long.MIN_VALUE;
+    private long received;
+    private long late;
+    private long emitted;
+    private Flow.Subscription subscription;
+    private int untilNextRequest;
+
+    /**
+     * @param windows         windows to count, each emitted independently
+     * @param allowedLateness how far behind the latest event time an event may
+     *                        arrive and still be counted
+     * @param latestCount     how many of the most recent events (by event time)
+     *                        {@link #latest()} keeps
+     * @param batchSize       events requested from the publisher at a time
+     * @param results         receives every closed window, on the thread
+     *                        delivering events
+     */
+    EventWindowAggregator(List<Window> windows, Duration allowedLateness, int latestCount, int batchSize,
+            Consumer<WindowCount> results) {
+        Objects.requireNonNull(windows, "Windows cannot be null");
+        Objects.requireNonNull(allowedLateness, "Allowed lateness cannot be null");
+        if (allowedLateness.isNegative()) {
+            throw new IllegalArgumentException("Allowed lateness cannot be negative");
+        }
+        if (latestCount < 0) {
+            throw new IllegalArgumentException("Latest count cannot be negative");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        for (Window window : windows) {
+            this.windows.add(new WindowState(Objects.requireNonNull(window, "Window cannot be null")));
+        }
+        this.allowedLatenessMillis = allowedLateness.toMillis();
+        this.latestCount = latestCount;
+        this.batchSize = batchSize;
+        this.results = Objects.requireNonNull(results, "Results consumer cannot be null");
+    }
+
+    @Override
+    public synchronized void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription, "Subscription cannot be null");
+        if (this.subscription != null) {
+            // Only one publisher per aggregator (Reactive Streams rule 2.5)
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        untilNextRequest = Math.max(1, batchSize / 2);
+        subscription.request(batchSize);
+    }
+
+    @Override
+    public synchronized void onNext(CombinedShowcaseDemo.CourseEvent event) {
+        Objects.requireNonNull(event, "Event cannot be null");
+        received++;
+        long eventMillis = event.eventTimestamp().toEpochMilli();
+        if (eventMillis > maxEventMillis) {
+            maxEventMillis = eventMillis;
+        }
+        long watermark = watermark();
+        if (eventMillis < watermark) {
+            late++;
+            logger.debug("Dropping late event: {}", event.title());
+        } else {
+            for (WindowState window : windows) {
+                window.add(eventMillis);
+            }
+        }
+        if (latestCount > 0) {
+            latest.add(event);
+            if (latest.size() > latestCount) {
+                latest.poll();
+            }
+        }
+        for (WindowState window : windows) {
+            window.emitUpTo(watermark);
+        }
+        if (--untilNextRequest == 0) {
+            untilNextRequest = Math.max(1, batchSize / 2);
+            subscription.request(untilNextRequest);
+        }
+    }
+
+    @Override
+    public synchronized void onError(Throwable throwable) {
+        logger.error("Event stream failed; open windows are discarded", throwable);
+        completion.completeExceptionally(throwable);
+    }
+
+    @Override
+    public synchronized void onComplete() {
+        for (WindowState window : windows) {
+            window.emitUpTo(Long.MAX_VALUE);
+        }
+        completion.complete(null);
+    }
+
+    /**
+     * Completes after the publisher completes and every open window is
+     * emitted, or exceptionally if the stream fails.
+     */
+    CompletableFuture<Void> completion() {
+        return completion;
+    }
+
+    /** The most recent events by event time, newest first. */
+    synchronized List<CombinedShowcaseDemo.CourseEvent> latest() {
+        List<CombinedShowcaseDemo.CourseEvent> newestFirst = new ArrayList<>(latest);
+        newestFirst.sort(Comparator.comparing(CombinedShowcaseDemo.CourseEvent::eventTimestamp).reversed());
+        return newestFirst;
+    }
+
+    synchronized Stats stats() {
+        int openPanes = 0;
+        for (WindowState window : windows) {
+            openPanes += window.panes.size();
+        }
+        return new Stats(received, late, emitted, openPanes);
+    }
+
+    private long watermark() {
+        return maxEventMillis == Long.MIN_VALUE ? Long.MIN_VALUE : maxEventMillis - allowedLatenessMillis;
+    }
+
+    /** Pane counters of one window definition. Guarded by the aggregator. */
+    private final class WindowState {
+        private final Window window;
+        private final long sizeMillis;
+        private final long slideMillis;
+        /** Pane start (epoch millis) to count. */
+        private final NavigableMap<Long, Long> panes = new TreeMap<>();
+        /** End of the last emitted window. */
+        private long emittedUntil = Long.MIN_VALUE;
+
+        WindowState(Window window) {
+            this.window = window;
+            this.sizeMillis = window.size().toMillis();
+            this.slideMillis = window.slide().toMillis();
+        }
+
+        void add(long eventMillis) {
+            long paneStart = Math.floorDiv(eventMillis, slideMillis) * slideMillis;
+            panes.merge(paneStart, 1L, Long::sum);
+        }
+
+        /**
+         * Emits, oldest first, every window that ends at or before
+         * {@code watermark} and covers at least one pane, then forgets the
+         * panes no later window covers.
+         */
+        void emitUpTo(long watermark) {
+            while (!panes.isEmpty()) {
+                long firstPane = panes.firstKey();
+                // The first window covering the oldest pane that is not emitted yet
+                long end = emittedUntil == Long.MIN_VALUE
+                        ? firstPane + slideMillis
+                        : Math.max(firstPane + slideMillis, emittedUntil + slideMillis);
+                if (end > watermark) {
+                    return;
+                }
+                long start = end - sizeMillis;
+                long count = 0;
+                for (long paneCount : panes.subMap(start, true, end, false).values()) {
+                    count += paneCount;
+                }
+                emittedUntil = end;
+                emitted++;
+                results.accept(new WindowCount(window, Instant.ofEpochMilli(start), Instant.ofEpochMilli(end), count));
+                panes.headMap(start + slideMillis, false).clear();
+            }
+        }
+    }
+
+    /**
+     * Windows of {@code size}, starting every {@code slide} at multiples of
+     * {@code slide} since the epoch (so daily windows are UTC days). Tumbling
+     * when both are equal.
+     */
+    record Window(Duration size, Duration slide) {
+
+        Window {
+            Objects.requireNonNull(size, "Size cannot be null");
+            Objects.requireNonNull(slide, "Slide cannot be null");
+            if (slide.toMillis() < 1) {
+                throw new IllegalArgumentException("Slide must be at least one millisecond");
+            }
+            if (size.toMillis() < slide.toMillis() || size.toMillis() % slide.toMillis() != 0) {
+                throw new IllegalArgumentException("Size must be a multiple of slide");
+            }
+        }
+
+        static Window tumbling(Duration size) {
+            return new Window(size, size);
+        }
+
+        static Window sliding(Duration size, Duration slide) {
+            return new Window(size, slide);
+        }
+    }
+
+    /** Number of accepted events with {@code start <= timestamp < end}. */
+    record WindowCount(Window window, Instant start, Instant end, long count) {
+    }
+
+    /**
+     * @param openPanes counters currently held, across all windows
+     */
+    record Stats(long received, long late, long windowsEmitted, int openPanes) {
+    }
+}
@@ -0,0 +1,284 @@
+package com.skillsjava.ids;
+
+import com.github.f4b6a3.ulid.UlidCreator;
+import com.github.f4b6a3.uuid.UuidCreator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark: what UUIDv4, UUIDv7 and ULID primary keys do to a B+tree.
+ * <p>
+ * Inserts the same number of keys of each type into an in-process B+tree
+ * laid out in fixed-size pages, like a clustered index (InnoDB, or a
+ * PostgreSQL btree) that stores rows in its leaves. Every page access goes
+ * through an LRU buffer pool much smaller than the tree; a miss is a page
+ * read and evicting a dirty page is a page write. Reported per key type:
+ * page splits, buffer pool misses, bytes written, leaf fill and insert
+ * throughput.
+ * <p>
+ * Random v4 keys land on a random leaf, so once the tree outgrows the pool
+ * nearly every insert reads a page and dirties one that is soon written
+ * back, and leaves split in half and stay about 70% full. Time-ordered keys
+ * always append to the rightmost leaf: the hot path stays cached, and the
+ * rightmost leaf splits at the insertion point (as InnoDB and PostgreSQL
+ * do), leaving full pages behind.
+ * <p>
+ * Keys are generated before timing, so throughput is the tree's alone.
+ * Arguments (all optional): {@code keys poolMegabytes rowBytes}.
+ */
+public final class BTreePageLocalityBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(BTreePageLocalityBenchmark.class);
+    private static final int PAGE_SIZE = 16 * 1024;
+    private static final int PAGE_HEADER = 128;
+    private static final int KEY_BYTES = 16;
+    private static final int CHILD_POINTER_BYTES = 8;
+
+    public static void main(String[] args) {
+        int keys = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int poolMegabytes = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int rowBytes = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int poolPages = poolMegabytes * 1024 * 1024 / PAGE_SIZE;
+
+        logger.info("=== B+tree page locality: {} keys, {} KiB pages, {} MiB buffer pool, {}-byte rows ===",
+                keys, PAGE_SIZE / 1024, poolMegabytes, rowBytes);
+        run("UUIDv4 (random)", generate(keys, UUID::randomUUID), poolPages, rowBytes);
+        run("UUIDv7 (UuidCreator)", generate(keys, UuidCreator::getTimeOrderedEpoch), poolPages, rowBytes);
+        run("ULID (monotonic)", generate(keys, () -> UlidCreator.getMonotonicUlid().toUuid()), poolPages, rowBytes);
+    }
+
+    /**
+     * Generates the keys up front, so the timed part is the tree alone and
+     * not the cost of the ID library.
+     */
+    private static long[] generate(int keys, Supplier<UUID> idSource) {
+        long[] pairs = new long[keys * 2];
+        for (int i = 0; i < keys; i++) {
+            UUID id = idSource.get();
+            pairs[i * 2] = id.getMostSignificantBits();
+            pairs[i * 2 + 1] = id.getLeastSignificantBits();
+        }
+        return pairs;
+    }
+
+    private static void run(String label, long[] pairs, int poolPages, int rowBytes) {
+        // Warm-up on a small tree so every key type is measured compiled
+        PagedBTree warmUp = new PagedBTree(poolPages, rowBytes);
+        for (int i = 0; i < Math.min(pairs.length, 400_000); i += 2) {
+            warmUp.insert(pairs[i], pairs[i + 1]);
+        }
+
+        PagedBTree tree = new PagedBTree(poolPages, rowBytes);
+        long start = System.nanoTime();
+        for (int i = 0; i < pairs.length; i += 2) {
+            tree.insert(pairs[i], pairs[i + 1]);
+        }
+        tree.flush();
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        logger.info(String.format(
+                "%-22s %,12.0f inserts/s  splits %,9d  misses %,11d  written %,8.1f MiB  leaves %,7d  fill %5.1f%%  height %d",
+                label, tree.size / elapsedSeconds, tree.splits, tree.misses,
+                tree.pagesWritten * (double) PAGE_SIZE / (1024 * 1024),
+                tree.leafPages, 100.0 * tree.size / ((long) tree.leafPages * tree.leafCapacity), tree.height));
+    }
+
+    /**
+     * B+tree over 128-bit keys (compared unsigned, as byte-wise database
+     * collation does), paged through an LRU buffer pool. Only page I/O is
+     * simulated; row payloads are accounted for in the leaf capacity.
+     */
+    private static final class PagedBTree {
+
+        final int leafCapacity;
+        final int internalCapacity;
+        final List<Page> pages = new ArrayList<>();
+        final BufferPool pool;
+        Page root;
+        long size;
+        long splits;
+        long misses;
+        long pagesWritten;
+        int leafPages = 1;
+        int height = 1;
+
+        PagedBTree(int poolPages, int rowBytes) {
+            this.leafCapacity = (PAGE_SIZE - PAGE_HEADER) / (KEY_BYTES + rowBytes);
+            this.internalCapacity = (PAGE_SIZE - PAGE_HEADER) / (KEY_BYTES + CHILD_POINTER_BYTES);
+            this.pool = new BufferPool(poolPages);
+            this.root = newPage(true);
+        }
+
+        void insert(long msb, long lsb) {
+            Deque<Page> path = new ArrayDeque<>();
+            Page page = root;
+            pool.read(page);
+            while (!page.leaf) {
+                path.push(page);
+                page = pages.get(page.children[upperBound(page, msb, lsb)]);
+                pool.read(page);
+            }
+            int position = upperBound(page, msb, lsb);
+            page.insertKey(position, msb, lsb);
+            pool.write(page);
+            size++;
+
+            // Split upwards while a page overflows
+            while (page.size > (page.leaf ? leafCapacity : internalCapacity)) {
+                splits++;
+                Page right = newPage(page.leaf);
+                // Appending past the last key (the time-ordered case) moves only
+                // the new key out, leaving a full page behind; otherwise halve
+                int moved = page.leaf && position == page.size - 1 ? 1 : page.size / 2;
+                long separatorMsb;
+                long separatorLsb;
+                if (page.leaf) {
+                    leafPages++;
+                    right.copyFrom(page, page.size - moved, moved);
+                    page.size -= moved;
+                    separatorMsb = right.msb[0];
+                    separatorLsb = right.lsb[0];
+                } else {
+                    // The middle key moves up; the keys after it move right
+                    int middle = page.size - moved;
+                    separatorMsb = page.msb[middle];
+                    separatorLsb = page.lsb[middle];
+                    right.copyFrom(page, middle + 1, moved - 1);
+                    System.arraycopy(page.children, middle + 1, right.children, 0, moved);
+                    page.size = middle;
+                }
+                pool.write(right);
+
+                Page parent = path.poll();
+                if (parent == null) {
+                    parent = newPage(false);
+                    parent.children[0] = page.id;
+                    root = parent;
+                    height++;
+                }
+                position = upperBound(parent, separatorMsb, separatorLsb);
+                parent.insertKey(position, separatorMsb, separatorLsb);
+                System.arraycopy(parent.children, position + 1, parent.children, position + 2,
+                        parent.size - position - 1);
+                parent.children[position + 1] = right.id;
+                pool.write(parent);
+                page = parent;
+            }
+        }
+
+        /** Writes back every dirty page still in the pool, as a checkpoint would. */
+        void flush() {
+            pool.flush();
+        }
+
+        private Page newPage(boolean leaf) {
+            Page page = new Page(pages.size(), leaf, leaf ? leafCapacity : internalCapacity);
+            pages.add(page);
+            return page;
+        }
+
+        /** Index of the first key greater than {@code (msb, lsb)}. */
+        private static int upperBound(Page page, long msb, long lsb) {
+            int low = 0;
+            int high = page.size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int byMsb = Long.compareUnsigned(page.msb[mid], msb);
+                if (byMsb < 0 || byMsb == 0 && Long.compareUnsigned(page.lsb[mid], lsb) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * LRU set of cached page ids; the value is the dirty flag.
+         */
+        private final class BufferPool {
+            private final int capacity;
+            private final LinkedHashMap<Integer, Boolean> cached = new LinkedHashMap<>(16, 0.75f, true);
+
+            BufferPool(int capacity) {
+                this.capacity = capacity;
+            }
+
+            void read(Page page) {
+                if (cached.get(page.id) == null) {
+                    misses++;
+                    cached.put(page.id, Boolean.FALSE);
+                    evictIfFull();
+                }
+            }
+
+            void write(Page page) {
+                if (cached.put(page.id, Boolean.TRUE) == null) {
+                    evictIfFull();
+                }
+            }
+
+            void flush() {
+                for (Boolean dirty : cached.values()) {
+                    if (dirty) {
+                        pagesWritten++;
+                    }
+                }
+                cached.replaceAll((id, dirty) -> Boolean.FALSE);
+            }
+
+            private void evictIfFull() {
+                if (cached.size() > capacity) {
+                    var eldest = cached.entrySet().iterator();
+                    if (eldest.next().getValue()) {
+                        pagesWritten++;
+                    }
+                    eldest.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * One page: sorted keys, plus child page ids for internal pages. Arrays
+     * have one spare slot so a page can overflow before it is split.
+     */
+    private static final class Page {
+        final int id;
+        final boolean leaf;
+        final long[] msb;
+        final long[] lsb;
+        final int[] children;
+        int size;
+
+        Page(int id, boolean leaf, int capacity) {
+            this.id = id;
+            this.leaf = leaf;
+            this.msb = new long[capacity + 1];
+            this.lsb = new long[capacity + 1];
+            this.children = leaf ? null : new int[capacity + 2];
+        }
+
+        void insertKey(int position, long keyMsb, long keyLsb) {
+            System.arraycopy(msb, position, msb, position + 1, size - position);
+            System.arraycopy(lsb, position, lsb, position + 1, size - position);
+            msb[position] = keyMsb;
+            lsb[position] = keyLsb;
+            size++;
+        }
+
+        void copyFrom(Page source, int from, int count) {
+            System.arraycopy(source.msb, from, msb, 0, count);
+            System.arraycopy(source.lsb, from, lsb, 0, count);
+            size = count;
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.skillsjava.ids;
+
+import com.github.f4b6a3.ulid.Ulid;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Allocation-free codecs for 128-bit IDs (UUIDv7 and ULID).
+ * <p>
+ * Three encodings, each to and from {@code byte[]} and {@link ByteBuffer}:
+ * <ul>
+ * <li>binary: 16 bytes, big-endian, which keeps time-ordered IDs sortable
+ * with a plain byte comparison;</li>
+ * <li>hex: the canonical 36-char UUID form, lower case;</li>
+ * <li>Base32: the 26-char Crockford form used by ULID.</li>
+ * </ul>
+ * Encoders write into the caller's buffer and allocate nothing; decoders only
+ * allocate the {@code UUID} or {@code Ulid} they return. Text is written and
+ * read through lookup tables; the decoders OR every looked-up digit into one
+ * error flag and check it once at the end instead of branching per char.
+ * Direct (off-heap) buffers work as well; a {@code MemorySegment} can be
+ * passed as {@code segment.asByteBuffer()}.
+ */
+public final class IdCodec {
+
+    public static final int BINARY_LENGTH = 16;
+    public static final int HEX_LENGTH = 36;
+    public static final int BASE32_LENGTH = 26;
+
+    private static final VarHandle BIG_ENDIAN_LONGS =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle BIG_ENDIAN_SHORTS =
+            MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+
+    private static final byte[] HEX_DIGITS = {
+            '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+    private static final byte[] BASE32_DIGITS = {
+            '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F',
+            'G', 'H', 'J', 'K', 'M', 'N', 'P', 'Q', 'R', 'S', 'T', 'V', 'W', 'X', 'Y', 'Z'};
+
+    /** Char value per ASCII byte, -1 if not a digit of the alphabet. */
+    private static final byte[] HEX_VALUES = new byte[256];
+    private static final byte[] BASE32_VALUES = new byte[256];
+
+    /** Both hex chars of every byte value, first char in the high byte. */
+    private static final short[] HEX_PAIRS = new short[256];
+    /** Where the hex pair of each of the 16 ID bytes goes in the 36-char form. */
+    private static final int[] HEX_PAIR_POSITIONS = {0, 2, 4, 6, 9, 11, 14, 16, 19, 21, 24, 26, 28, 30, 32, 34};
+    private static final int[] HEX_DASH_POSITIONS = {8, 13, 18, 23};
+
+    static {
+        Arrays.fill(HEX_VALUES, (byte) -1);
+        for (int i = 0; i < 16; i++) {
+            HEX_VALUES[HEX_DIGITS[i]] = (byte) i;
+            HEX_VALUES[Character.toUpperCase(HEX_DIGITS[i])] = (byte) i;
+        }
+        Arrays.fill(BASE32_VALUES, (byte) -1);
+        for (int i = 0; i < 32; i++) {
+            BASE32_VALUES[BASE32_DIGITS[i]] = (byte) i;
+            BASE32_VALUES[Character.toLowerCase(BASE32_DIGITS[i])] = (byte) i;
+        }
+        // Crockford: I and L read as 1, O as 0
+        for (char c : new char[] {'I', 'i', 'L', 'l'}) {
+            BASE32_VALUES[c] = 1;
+        }
+        BASE32_VALUES['O'] = 0;
+        BASE32_VALUES['o'] = 0;
+
+        for (int b = 0; b < 256; b++) {
+            HEX_PAIRS[b] = (short) (HEX_DIGITS[b >>> 4] << 8 | HEX_DIGITS[b & 0xF]);
+        }
+    }
+
+    private IdCodec() {
+    }
+
+    // --- Binary ---
+
+    public static void writeBinary(UUID id, byte[] destination, int offset) {
+        writeBinary(id.getMostSignificantBits(), id.getLeastSignificantBits(), destination, offset);
+    }
+
+    public static void writeBinary(Ulid id, byte[] destination, int offset) {
+        writeBinary(id.getMostSignificantBits(), id.getLeastSignificantBits(), destination, offset);
+    }
+
+    /**
+     * Writes 16 big-endian bytes at the buffer's position and advances it,
+     * whatever the buffer's own byte order.
+     */
+    public static void writeBinary(UUID id, ByteBuffer destination) {
+        writeBinary(id.getMostSignificantBits(), id.getLeastSignificantBits(), destination);
+    }
+
+    public static void writeBinary(Ulid id, ByteBuffer destination) {
+        writeBinary(id.getMostSignificantBits(), id.getLeastSignificantBits(), destination);
+    }
+
+    public static UUID readUuid(byte[] source, int offset) {
+        return new UUID(readLong(source, offset), readLong(source, offset + 8));
+    }
+
+    public static UUID readUuid(ByteBuffer source) {
+        return new UUID(readLong(source), readLong(source));
+    }
+
+    public static Ulid readUlid(byte[] source, int offset) {
+        return new Ulid(readLong(source, offset), readLong(source, offset + 8));
+    }
+
+    public static Ulid readUlid(ByteBuffer source) {
+        return new Ulid(readLong(source), readLong(source));
+    }
+
+    // --- Hex (canonical UUID text) ---
+
+    public static void writeHex(UUID id, byte[] destination, int offset) {
+        Objects.checkFromIndexSize(offset, HEX_LENGTH, destination.length);
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        for (int i = 0; i < BINARY_LENGTH; i++) {
+            BIG_ENDIAN_SHORTS.set(destination, offset + HEX_PAIR_POSITIONS[i], hexPair(msb, lsb, i));
+        }
+        for (int dash : HEX_DASH_POSITIONS) {
+            destination[offset + dash] = '-';
+        }
+    }
+
+    /**
+     * Writes the 36 ASCII chars at the buffer's position and advances it.
+     */
+    public static void writeHex(UUID id, ByteBuffer destination) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        int position = destination.position();
+        Objects.checkFromIndexSize(position, HEX_LENGTH, destination.limit());
+        for (int i = 0; i < BINARY_LENGTH; i++) {
+            short pair = hexPair(msb, lsb, i);
+            destination.put(position + HEX_PAIR_POSITIONS[i], (byte) (pair >>> 8));
+            destination.put(position + HEX_PAIR_POSITIONS[i] + 1, (byte) pair);
+        }
+        for (int dash : HEX_DASH_POSITIONS) {
+            destination.put(position + dash, (byte) '-');
+        }
+        destination.position(position + HEX_LENGTH);
+    }
+
+    /**
+     * Appends the canonical form to a log or message builder without creating a {@code String}.
+     */
+    public static StringBuilder appendHex(StringBuilder destination, UUID id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        for (int i = 0; i < BINARY_LENGTH; i++) {
+            if (i == 4 || i == 6 || i == 8 || i == 10) {
+                destination.append('-');
+            }
+            short pair = hexPair(msb, lsb, i);
+            destination.append((char) (pair >>> 8)).append((char) (pair & 0xFF));
+        }
+        return destination;
+    }
+
+    /**
+     * Parses the 36-char canonical form; hex digits may be upper or lower case.
+     *
+     * @throws IllegalArgumentException if the text is not a canonical UUID
+     */
+    public static UUID parseHex(byte[] source, int offset) {
+        if (offset < 0 || source.length - offset < HEX_LENGTH) {
+            throw new IllegalArgumentException("Need " + HEX_LENGTH + " bytes for a UUID");
+        }
+        return parseHex(source, null, offset);
+    }
+
+    /**
+     * Parses at the buffer's position and advances it.
+     */
+    public static UUID parseHex(ByteBuffer source) {
+        int position = source.position();
+        if (source.limit() - position < HEX_LENGTH) {
+            throw new IllegalArgumentException("Need " + HEX_LENGTH + " bytes for a UUID");
+        }
+        UUID id = parseHex(null, source, position);
+        source.position(position + HEX_LENGTH);
+        return id;
+    }
+
+    /**
+     * Reads from exactly one of {@code array} or {@code buffer}, so heap and
+     * direct buffers share one decoder without copying.
+     */
+    private static UUID parseHex(byte[] array, ByteBuffer buffer, int offset) {
+        long group1 = hexGroup(array, buffer, offset, 8);
+        long group2 = hexGroup(array, buffer, offset + 9, 4);
+        long group3 = hexGroup(array, buffer, offset + 14, 4);
+        long group4 = hexGroup(array, buffer, offset + 19, 4);
+        long group5 = hexGroup(array, buffer, offset + 24, 12);
+        int dashes = 0;
+        for (int dash : HEX_DASH_POSITIONS) {
+            dashes |= byteAt(array, buffer, offset + dash) ^ '-';
+        }
+        if ((group1 | group2 | group3 | group4 | group5) < 0 || dashes != 0) {
+            throw new IllegalArgumentException("Invalid UUID text");
+        }
+        return new UUID(group1 << 32 | group2 << 16 | group3, group4 << 48 | group5);
+    }
+
+    /**
+     * Value of up to 12 hex digits, or a negative number if any is invalid:
+     * an invalid digit is -1, which sign-extends and sticks in the high bits.
+     */
+    private static long hexGroup(byte[] array, ByteBuffer buffer, int offset, int digits) {
+        long value = 0;
+        for (int i = 0; i < digits; i++) {
+            value = value << 4 | HEX_VALUES[byteAt(array, buffer, offset + i)];
+        }
+        return value;
+    }
+
+    // --- Base32 (Crockford, ULID text) ---
+
+    public static void writeBase32(Ulid id, byte[] destination, int offset) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        for (int i = 0; i < BASE32_LENGTH; i++) {
+            destination[offset + i] = BASE32_DIGITS[base32At(msb, lsb, i)];
+        }
+    }
+
+    /**
+     * Writes the 26 ASCII chars at the buffer's position and advances it.
+     */
+    public static void writeBase32(Ulid id, ByteBuffer destination) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        int position = destination.position();
+        for (int i = 0; i < BASE32_LENGTH; i++) {
+            destination.put(position + i, BASE32_DIGITS[base32At(msb, lsb, i)]);
+        }
+        destination.position(position + BASE32_LENGTH);
+    }
+
+    public static StringBuilder appendBase32(StringBuilder destination, Ulid id) {
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        for (int i = 0; i < BASE32_LENGTH; i++) {
+            destination.append((char) BASE32_DIGITS[base32At(msb, lsb, i)]);
+        }
+        return destination;
+    }
+
+    /**
+     * Parses the 26-char Crockford Base32 form (case-insensitive; I, L and O
+     * are read as 1, 1 and 0).
+     *
+     * @throws IllegalArgumentException if the text is not a valid ULID
+     */
+    public static Ulid parseBase32(byte[] source, int offset) {
+        if (offset < 0 || source.length - offset < BASE32_LENGTH) {
+            throw new IllegalArgumentException("Need " + BASE32_LENGTH + " bytes for a ULID");
+        }
+        return parseBase32(source, null, offset);
+    }
+
+    /**
+     * Parses at the buffer's position and advances it.
+     */
+    public static Ulid parseBase32(ByteBuffer source) {
+        int position = source.position();
+        if (source.limit() - position < BASE32_LENGTH) {
+            throw new IllegalArgumentException("Need " + BASE32_LENGTH + " bytes for a ULID");
+        }
+        Ulid id = parseBase32(null, source, position);
+        source.position(position + BASE32_LENGTH);
+        return id;
+    }
+
+    private static Ulid parseBase32(byte[] array, ByteBuffer buffer, int offset) {
+        int errors = 0;
+        // 26 chars carry 130 bits: the first char may only hold the top 3
+        int first = BASE32_VALUES[byteAt(array, buffer, offset)];
+        errors |= first | -(first >>> 3); // negative if invalid or above 7
+        long msb = (long) first << 61;
+        for (int i = 1; i <= 12; i++) {
+            int value = BASE32_VALUES[byteAt(array, buffer, offset + i)];
+            errors |= value;
+            msb |= (long) value << (61 - 5 * i);
+        }
+        int middle = BASE32_VALUES[byteAt(array, buffer, offset + 13)];
+        errors |= middle;
+        msb |= middle >>> 4 & 1;
+        long lsb = (long) (middle & 0xF) << 60;
+        for (int i = 14; i < BASE32_LENGTH; i++) {
+            int value = BASE32_VALUES[byteAt(array, buffer, offset + i)];
+            errors |= value;
+            lsb |= (long) value << (55 - 5 * (i - 14));
+        }
+        if (errors < 0) {
+            throw new IllegalArgumentException("Invalid ULID text");
+        }
+        return new Ulid(msb, lsb);
+    }
+
+    // --- Internals ---
+
+    private static void writeBinary(long msb, long lsb, byte[] destination, int offset) {
+        BIG_ENDIAN_LONGS.set(destination, offset, msb);
+        BIG_ENDIAN_LONGS.set(destination, offset + 8, lsb);
+    }
+
+    private static void writeBinary(long msb, long lsb, ByteBuffer destination) {
+        boolean bigEndian = destination.order() == ByteOrder.BIG_ENDIAN;
+        destination.putLong(bigEndian ? msb : Long.reverseBytes(msb));
+        destination.putLong(bigEndian ? lsb : Long.reverseBytes(lsb));
+    }
+
+    private static long readLong(byte[] source, int offset) {
+        return (long) BIG_ENDIAN_LONGS.get(source, offset);
+    }
+
+    private static long readLong(ByteBuffer source) {
+        long value = source.getLong();
+        return source.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value);
+    }
+
+    /** Hex chars of byte {@code index} (0-15, big-endian) of the ID. */
+    private static short hexPair(long msb, long lsb, int index) {
+        long word = index < 8 ? msb : lsb;
+        return HEX_PAIRS[(int) (word >>> (56 - ((index & 7) << 3))) & 0xFF];
+    }
+
+    /**
+     * Value of the Base32 digit at a position: 3 bits, then 25 groups of 5
+     * across the 128 bits; digit 13 straddles msb and lsb.
+     */
+    private static int base32At(long msb, long lsb, int position) {
+        if (position == 0) {
+            return (int) (msb >>> 61);
+        }
+        if (position < 13) {
+            return (int) (msb >>> (61 - 5 * position)) & 31;
+        }
+        if (position == 13) {
+            return (int) ((msb & 1) << 4 | lsb >>> 60);
+        }
+        return (int) (lsb >>> (55 - 5 * (position - 14))) & 31;
+    }
+
+    private static int byteAt(byte[] array, ByteBuffer buffer, int index) {
+        return (array != null ? array[index] : buffer.get(index)) & 0xFF;
+    }
+}
@@ -0,0 +1,99 @@
+package com.skillsjava.ids;
+
+import com.github.f4b6a3.ulid.Ulid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Benchmark: {@link IdCodec} vs {@code UUID.toString/fromString} and {@code Ulid.toString}.
+ * <p>
+ * Reports time and bytes allocated per operation (from the thread's
+ * allocation counter) over a pool of pre-generated IDs. A plain
+ * {@code nanoTime} harness; the allocation column is the point.
+ */
+public final class IdCodecBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdCodecBenchmark.class);
+    private static final int IDS = 4_096;
+    private static final int ROUNDS = 5_000_000;
+
+    public static void main(String[] args) {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+        UUID[] uuids = new UUID[IDS];
+        Ulid[] ulids = new Ulid[IDS];
+        String[] uuidText = new String[IDS];
+        byte[] hexText = new byte[IDS * IdCodec.HEX_LENGTH];
+        byte[] base32Text = new byte[IDS * IdCodec.BASE32_LENGTH];
+        for (int i = 0; i < IDS; i++) {
+            uuids[i] = generator.nextUuid();
+            ulids[i] = generator.nextUlid();
+            uuidText[i] = uuids[i].toString();
+            IdCodec.writeHex(uuids[i], hexText, i * IdCodec.HEX_LENGTH);
+            IdCodec.writeBase32(ulids[i], base32Text, i * IdCodec.BASE32_LENGTH);
+        }
+        byte[] out = new byte[64];
+        ByteBuffer direct = ByteBuffer.allocateDirect(64);
+        StringBuilder line = new StringBuilder(64);
+
+        logger.info("=== ID codec benchmark ({} ops per row) ===", ROUNDS);
+        run("UUID.toString", i -> uuids[i].toString().length());
+        run("IdCodec.writeHex(byte[])", i -> {
+            IdCodec.writeHex(uuids[i], out, 0);
+            return out[35];
+        });
+        run("IdCodec.appendHex(StringBuilder)", i -> {
+            line.setLength(0);
+            return IdCodec.appendHex(line, uuids[i]).length();
+        });
+        run("UUID.fromString", i -> UUID.fromString(uuidText[i]).getLeastSignificantBits());
+        run("IdCodec.parseHex(byte[])",
+                i -> IdCodec.parseHex(hexText, i * IdCodec.HEX_LENGTH).getLeastSignificantBits());
+        run("Ulid.toString", i -> ulids[i].toString().length());
+        run("IdCodec.writeBase32(byte[])", i -> {
+            IdCodec.writeBase32(ulids[i], out, 0);
+            return out[25];
+        });
+        run("IdCodec.parseBase32(byte[])",
+                i -> IdCodec.parseBase32(base32Text, i * IdCodec.BASE32_LENGTH).getLeastSignificantBits());
+        run("IdCodec.writeBinary(direct buffer)", i -> {
+            direct.clear();
+            IdCodec.writeBinary(uuids[i], direct);
+            return direct.position();
+        });
+        run("IdCodec.readUuid(byte[])", i -> {
+            IdCodec.writeBinary(uuids[i], out, 0);
+            return IdCodec.readUuid(out, 0).getMostSignificantBits();
+        });
+        logger.info("Sample: {}", new String(hexText, 0, IdCodec.HEX_LENGTH, StandardCharsets.US_ASCII));
+    }
+
+    private static void run(String label, IntToLongFunction operation) {
+        long sink = measure(operation, ROUNDS / 5); // warm-up
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        sink += measure(operation, ROUNDS);
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+
+        logger.info(String.format("%-36s %6.1f ns/op %6.1f bytes/op [%d]",
+                label, (double) elapsed / ROUNDS, (double) allocated / ROUNDS, sink & 1));
+    }
+
+    private static long measure(IntToLongFunction operation, int rounds) {
+        long sink = 0;
+        for (int r = 0; r < rounds; r++) {
+            sink += operation.applyAsLong(r & (IDS - 1));
+        }
+        return sink;
+    }
+}
@@ -0,0 +1,107 @@
+package com.skillsjava.ids;
+
+import com.github.f4b6a3.ulid.UlidCreator;
+import com.github.f4b6a3.uuid.UuidCreator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.LongSupplier;
+
+/**
+ * Benchmark: contended ID generation, library calls vs {@link TimeOrderedIdGenerator}.
+ * <p>
+ * For each thread count every thread generates IDs in a tight loop for a
+ * fixed time; the total throughput is reported per strategy. A plain
+ * {@code nanoTime} harness (JMH is not part of this build): run with a few
+ * seconds per round and compare orders of magnitude, not single digits.
+ * Arguments (all optional): {@code seconds maxThreads}.
+ */
+public final class IdGeneratorBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorBenchmark.class);
+    private static final int BATCH_SIZE = 64;
+
+    public static void main(String[] args) throws InterruptedException {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1])
+                : Math.max(4, Runtime.getRuntime().availableProcessors());
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+
+        logger.info("=== ID generation under contention ({} s per run, {} cores) ===",
+                seconds, Runtime.getRuntime().availableProcessors());
+        for (int threads = 1; threads <= maxThreads; threads <<= 1) {
+            logger.info("--- {} thread(s) ---", threads);
+            run("UuidCreator.getTimeOrderedEpoch", threads, seconds,
+                    () -> UuidCreator.getTimeOrderedEpoch().getLeastSignificantBits());
+            run("UlidCreator.getMonotonicUlid", threads, seconds,
+                    () -> UlidCreator.getMonotonicUlid().getLeastSignificantBits());
+            run("generator.nextUuid", threads, seconds,
+                    () -> generator.nextUuid().getLeastSignificantBits());
+            run("generator.nextUlid", threads, seconds,
+                    () -> generator.nextUlid().getLeastSignificantBits());
+            run("generator.nextBatch(" + BATCH_SIZE + ")", threads, seconds, BATCH_SIZE,
+                    () -> generator.nextBatch(BATCH_SIZE)[BATCH_SIZE - 1].getLeastSignificantBits());
+        }
+    }
+
+    private static void run(String label, int threads, int seconds, LongSupplier idSource)
+            throws InterruptedException {
+        run(label, threads, seconds, 1, idSource);
+    }
+
+    /**
+     * @param idsPerCall how many IDs one call of {@code idSource} produces
+     */
+    private static void run(String label, int threads, int seconds, int idsPerCall, LongSupplier idSource)
+            throws InterruptedException {
+        // Warm-up so every strategy is measured compiled
+        measure(threads, Math.max(1, seconds / 4) * 1_000_000_000L, idSource);
+        long start = System.nanoTime();
+        long calls = measure(threads, seconds * 1_000_000_000L, idSource);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        logger.info(String.format("%-36s %,14.0f ids/s", label, calls * idsPerCall / elapsedSeconds));
+    }
+
+    private static long measure(int threads, long durationNanos, LongSupplier idSource)
+            throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        long[] counts = new long[threads * 8]; // padded: one cache line per thread
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int slot = t * 8;
+            Thread worker = new Thread(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long deadline = System.nanoTime() + durationNanos;
+                long calls = 0;
+                long sink = 0;
+                while (System.nanoTime() < deadline) {
+                    for (int i = 0; i < 256; i++) {
+                        sink ^= idSource.getAsLong();
+                    }
+                    calls += 256;
+                }
+                counts[slot] = calls + (sink == 42 ? 1 : 0);
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        ready.await();
+        go.countDown();
+        long total = 0;
+        for (int t = 0; t < threads; t++) {
+            workers.get(t).join();
+            total += counts[t * 8];
+        }
+        return total;
+    }
+}
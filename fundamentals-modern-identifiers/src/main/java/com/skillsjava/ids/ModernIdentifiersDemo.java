@@ -6,6 +6,8 @@ import com.github.f4b6a3.ulid.Ulid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.UUID;
 import java.util.List;
 import java.util.ArrayList;
@@ -46,6 +48,17 @@ public final class ModernIdentifiersDemo {
         }
         logger.info("Note: Sortable, URL-friendly, and very readable.\n");
 
+        // 4. Generator for many threads: per-thread blocks leased from one counter
+        logger.info("--- TimeOrderedIdGenerator (block leasing) ---");
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+        logger.info("v7:   {}", generator.nextUuid());
+        logger.info("ULID: {}", generator.nextUlid());
+        UUID[] batch = generator.nextBatch(3);
+        for (UUID id : batch) {
+            logger.info("batch: {}", id);
+        }
+        logger.info("Note: No shared counter per ID, still ordered across threads by millisecond.\n");
+
         // Comparison of sorting behavior
         logger.info("--- Sorting behavior (Simulated timeline) ---");
         List<UUID> v7List = new ArrayList<>();
@@ -58,6 +71,21 @@ public final class ModernIdentifiersDemo {
 
         logger.info("Sorted v7 IDs:");
         v7List.stream().sorted().forEach(id -> logger.info("  {}", id));
-        logger.info("Notice: They are naturally ordered by creation time!");
+        logger.info("Notice: They are naturally ordered by creation time!\n");
+
+        // Because of that ordering, "created between A and B" is a key range
+        logger.info("--- Time-range queries without a timestamp index ---");
+        Instant start = Instant.now().minus(Duration.ofDays(1));
+        long[] clock = {start.toEpochMilli()};
+        TimeOrderedIdGenerator dayOfIds = new TimeOrderedIdGenerator(64, () -> clock[0]);
+        TimeRangeIdIndex index = new TimeRangeIdIndex();
+        for (int i = 0; i < 86_400; i++) {
+            clock[0] += 1_000; // one signup per second for a day
+            index.add(dayOfIds.nextUuid());
+        }
+        Instant lastHour = Instant.ofEpochMilli(clock[0]).minus(Duration.ofHours(1));
+        List<UUID> recent = index.idsBetween(lastHour, Instant.ofEpochMilli(clock[0] + 1));
+        logger.info("Indexed {} IDs; created in the last hour: {} (first {}, last {})",
+                index.size(), recent.size(), recent.get(0), recent.get(recent.size() - 1));
     }
 }
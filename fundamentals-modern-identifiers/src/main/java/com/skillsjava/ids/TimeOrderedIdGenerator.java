@@ -0,0 +1,182 @@
+package com.skillsjava.ids;
+
+import com.github.f4b6a3.ulid.Ulid;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Time-ordered ID generator (UUIDv7 and ULID) built for many threads.
+ * <p>
+ * The library calls ({@code UuidCreator.getTimeOrderedEpoch()},
+ * {@code UlidCreator.getMonotonicUlid()}) keep one global monotonic counter,
+ * so every ID from every thread goes through the same point of contention.
+ * Here the only shared state is one {@link AtomicLong} packing the current
+ * millisecond and the next free sequence number. Threads <em>lease</em> a
+ * block of sequence numbers from it with one CAS, then hand out IDs from
+ * their block without touching shared memory.
+ * <p>
+ * Ordering guarantees:
+ * <ul>
+ * <li>IDs are unique and ordered by (millisecond, sequence); the random bits
+ * below the sequence never decide the order.</li>
+ * <li>A block is only used during the millisecond it was leased in, so an ID
+ * from a later millisecond always sorts after every ID from an earlier one,
+ * whichever thread produced them.</li>
+ * <li>Within one millisecond, IDs of one thread (single or batched) are
+ * increasing; IDs of different threads are ordered by block, not by
+ * wall-clock instant.</li>
+ * <li>If the clock steps back, or a millisecond runs out of sequence
+ * numbers, the generator keeps the last millisecond (or borrows the next
+ * one) rather than going backwards.</li>
+ * </ul>
+ * The random tail comes from {@link ThreadLocalRandom}: fine for keys, but
+ * not a secret. Use {@code UUID.randomUUID()} for unguessable tokens.
+ */
+public final class TimeOrderedIdGenerator {
+
+    /** Sequence numbers available per millisecond: 4,194,304. */
+    static final int SEQUENCE_BITS = 22;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int DEFAULT_BLOCK_SIZE = 64;
+
+    private final LongSupplier clock;
+    private final long epochMillis;
+    private final int blockSize;
+    /** {@code (millis - epochMillis) << SEQUENCE_BITS | nextSequence}; only grows. */
+    private final AtomicLong state = new AtomicLong();
+    private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+
+    public TimeOrderedIdGenerator() {
+        this(DEFAULT_BLOCK_SIZE, System::currentTimeMillis);
+    }
+
+    /**
+     * @param blockSize sequence numbers a thread leases at once; larger blocks
+     *                  mean fewer CAS operations but more numbers left unused
+     *                  when the millisecond ends
+     * @param clock     source of Unix epoch milliseconds
+     */
+    public TimeOrderedIdGenerator(int blockSize, LongSupplier clock) {
+        if (blockSize < 1 || blockSize > SEQUENCE_MASK + 1) {
+            throw new IllegalArgumentException("Block size must be between 1 and " + (SEQUENCE_MASK + 1));
+        }
+        this.blockSize = blockSize;
+        this.clock = clock;
+        // Millis are stored relative to this epoch so they fit next to the sequence
+        this.epochMillis = clock.getAsLong() - 1;
+    }
+
+    public UUID nextUuid() {
+        Block block = blocks.get();
+        long sequence = block.next(this);
+        return new UUID(uuidMsb(block.millis, sequence), uuidLsb(sequence, ThreadLocalRandom.current().nextLong()));
+    }
+
+    public Ulid nextUlid() {
+        Block block = blocks.get();
+        long sequence = block.next(this);
+        return new Ulid(ulidMsb(block.millis, sequence), ulidLsb(sequence, ThreadLocalRandom.current().nextLong()));
+    }
+
+    /**
+     * Returns {@code n} consecutive UUIDv7s leased with a single CAS (or a few,
+     * if {@code n} exceeds what is left in the current millisecond).
+     * The batch is sorted and sorts after every ID leased before it.
+     */
+    public UUID[] nextBatch(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Batch size must not be negative");
+        }
+        // The batch is leased past this thread's block; drop the block so the
+        // thread's next single ID does not sort before the batch
+        blocks.get().discard();
+        UUID[] ids = new UUID[n];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int filled = 0;
+        while (filled < n) {
+            long lease = lease(n - filled);
+            long millis = millisOf(lease);
+            long first = lease & SEQUENCE_MASK;
+            int count = (int) Math.min(n - filled, SEQUENCE_MASK + 1 - first);
+            for (int i = 0; i < count; i++) {
+                ids[filled++] = new UUID(uuidMsb(millis, first + i), uuidLsb(first + i, random.nextLong()));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Reserves up to {@code count} sequence numbers in the newest millisecond.
+     *
+     * @return the packed state of the first reserved number; the reservation
+     *         ends early if the millisecond runs out of sequence numbers
+     */
+    private long lease(int count) {
+        while (true) {
+            long current = state.get();
+            long now = clock.getAsLong() - epochMillis;
+            // A new millisecond starts at sequence 0. Otherwise continue where the
+            // last lease ended: same millisecond, clock stepped back, or (after an
+            // exhausted millisecond rolled the state over) a borrowed future one.
+            long first = now > current >>> SEQUENCE_BITS ? now << SEQUENCE_BITS : current;
+            long end = Math.min((first & ~SEQUENCE_MASK) + SEQUENCE_MASK + 1, first + count);
+            if (state.compareAndSet(current, end)) {
+                return first;
+            }
+        }
+    }
+
+    private long millisOf(long packed) {
+        return (packed >>> SEQUENCE_BITS) + epochMillis;
+    }
+
+    // --- Bit layouts ---
+
+    /** UUIDv7: 48-bit millis, version 7, top 12 sequence bits in rand_a. */
+    static long uuidMsb(long millis, long sequence) {
+        return millis << 16 | 0x7000L | (sequence >>> 10) & 0xFFFL;
+    }
+
+    /** UUIDv7: RFC 4122 variant, low 10 sequence bits, 52 random bits. */
+    static long uuidLsb(long sequence, long random) {
+        return 0x8000_0000_0000_0000L | (sequence & 0x3FFL) << 52 | random & 0x000F_FFFF_FFFF_FFFFL;
+    }
+
+    /** ULID: 48-bit millis, top 16 sequence bits. */
+    static long ulidMsb(long millis, long sequence) {
+        return millis << 16 | (sequence >>> 6) & 0xFFFFL;
+    }
+
+    /** ULID: low 6 sequence bits, 58 random bits. */
+    static long ulidLsb(long sequence, long random) {
+        return (sequence & 0x3FL) << 58 | random & 0x03FF_FFFF_FFFF_FFFFL;
+    }
+
+    /**
+     * One thread's leased range of sequence numbers, valid for a single millisecond.
+     */
+    private static final class Block {
+        long millis = Long.MIN_VALUE;
+        long next;
+        long end;
+
+        long next(TimeOrderedIdGenerator generator) {
+            // Never carry a block into a later millisecond: that would let this
+            // thread stamp IDs with a time other threads have already moved past
+            if (next == end || generator.clock.getAsLong() > millis) {
+                long first = generator.lease(generator.blockSize);
+                millis = generator.millisOf(first);
+                next = first & SEQUENCE_MASK;
+                end = Math.min(next + generator.blockSize, SEQUENCE_MASK + 1);
+            }
+            return next++;
+        }
+
+        void discard() {
+            next = end;
+        }
+    }
+}
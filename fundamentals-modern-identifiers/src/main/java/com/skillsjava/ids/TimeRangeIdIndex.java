@@ -0,0 +1,405 @@
+package com.skillsjava.ids;
+
+import com.github.f4b6a3.ulid.Ulid;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Time-range index over time-ordered IDs (UUIDv7 and ULID).
+ * <p>
+ * Both formats start with a 48-bit Unix millisecond timestamp, so sorting the
+ * IDs sorts them by creation time and "created between A and B" is a key
+ * range: no separate timestamp column or secondary index is needed.
+ * <p>
+ * Storage is append-mostly:
+ * <ul>
+ * <li>new IDs go into a small mutable tail;</li>
+ * <li>a full tail is sorted and sealed into an immutable run of
+ * {@code long} pairs {@code [msb, lsb]}, kept in one primitive array;</li>
+ * <li>IDs of a sealed tail that sort after everything already sealed form a
+ * new <b>main</b> run. Main runs never overlap and are kept in key order, so
+ * the usual case (IDs arriving roughly in time order) is a plain append;</li>
+ * <li>IDs that sort before the end of the main runs are <b>late</b>. They go
+ * into a run of their own, so a straggler never rewrites the main runs.
+ * Late runs may overlap anything; they are compacted in tiers: the newest
+ * two are merged while the older is at most twice the size of the newer, as
+ * carries in a binary counter. That keeps O(log n) late runs and rewrites
+ * each late ID O(log n) times. A seal merges at most
+ * {@value #LATE_MERGE_BUDGET} tails' worth of IDs; a larger merge is
+ * carried over to the next seals.</li>
+ * </ul>
+ * {@link #idsBetween} binary-searches the main runs and then the first
+ * matching run, scans forward while the timestamp is in range, and merges in
+ * the matching slices of the late runs and the filtered tail:
+ * O(log n + matches + tail) instead of a full scan.
+ */
+public final class TimeRangeIdIndex {
+
+    private static final int DEFAULT_TAIL_CAPACITY = 4_096;
+    /** Last millisecond the 48-bit timestamp of UUIDv7 and ULID can hold. */
+    private static final long MAX_MILLIS = (1L << 48) - 1;
+    /** First instant after the timestamp range. */
+    private static final Instant END_INSTANT = Instant.ofEpochMilli(MAX_MILLIS + 1);
+    /** Late IDs one seal may rewrite while compacting, in tails. */
+    private static final int LATE_MERGE_BUDGET = 8;
+
+    private final int tailCapacity;
+    /** Main runs in key order; each is a sorted {@code [msb, lsb, msb, lsb, ...]} array. */
+    private final List<long[]> runs = new ArrayList<>();
+    /** Late runs, oldest (and largest) first; each sorted, but they may overlap. */
+    private final List<long[]> lateRuns = new ArrayList<>();
+    /** Merge of two adjacent late runs in progress, or {@code null}. */
+    private Compaction compaction;
+    private final long[] tail;
+    private int tailSize;
+    private long size;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public TimeRangeIdIndex() {
+        this(DEFAULT_TAIL_CAPACITY);
+    }
+
+    /**
+     * @param tailCapacity IDs buffered before a run is sealed; the tail is
+     *                     scanned linearly by every query, so keep it small
+     */
+    public TimeRangeIdIndex(int tailCapacity) {
+        if (tailCapacity < 1) {
+            throw new IllegalArgumentException("Tail capacity must be positive");
+        }
+        this.tailCapacity = tailCapacity;
+        this.tail = new long[tailCapacity * 2];
+    }
+
+    public void add(UUID id) {
+        add(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    public void add(Ulid id) {
+        add(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    public void add(long msb, long lsb) {
+        lock.writeLock().lock();
+        try {
+            tail[tailSize * 2] = msb;
+            tail[tailSize * 2 + 1] = lsb;
+            size++;
+            if (++tailSize == tailCapacity) {
+                seal();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * IDs created in {@code [from, to)}, in key (and so creation) order.
+     * Use {@code Ulid.from(uuid)} to get ULIDs back.
+     */
+    public List<UUID> idsBetween(Instant from, Instant to) {
+        List<UUID> ids = new ArrayList<>();
+        scan(from, to, (msb, lsb) -> ids.add(new UUID(msb, lsb)));
+        return ids;
+    }
+
+    /**
+     * Number of IDs created in {@code [from, to)}, without materializing them.
+     */
+    public long countBetween(Instant from, Instant to) {
+        long[] count = new long[1];
+        scan(from, to, (msb, lsb) -> count[0]++);
+        return count[0];
+    }
+
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void scan(Instant from, Instant to, IdConsumer consumer) {
+        Objects.requireNonNull(from, "From cannot be null");
+        Objects.requireNonNull(to, "To cannot be null");
+        // The key range starts at the first ID of the from-millisecond and ends
+        // before the first ID of the millisecond at or after to
+        long fromMillis = clampedMillis(from, false);
+        long toMillis = clampedMillis(to, true);
+        if (toMillis <= fromMillis) {
+            return;
+        }
+        long fromMsb = fromMillis << 16;
+        // Past the last millisecond the bound would wrap to 0: leave the range open instead
+        boolean open = toMillis > MAX_MILLIS;
+        long toMsb = open ? 0 : toMillis << 16;
+
+        lock.readLock().lock();
+        try {
+            // The tail is unsorted: filter and sort its matches first, merge in
+            // the matching slice of every late run, then interleave the result
+            // with the main runs so the output stays in key order
+            long[] tailMatches = new long[tailSize * 2];
+            int matched = 0;
+            for (int i = 0; i < tailSize * 2; i += 2) {
+                if (Long.compareUnsigned(tail[i], fromMsb) >= 0
+                        && (open || Long.compareUnsigned(tail[i], toMsb) < 0)) {
+                    tailMatches[matched++] = tail[i];
+                    tailMatches[matched++] = tail[i + 1];
+                }
+            }
+            tailMatches = sortPairs(Arrays.copyOf(tailMatches, matched));
+            for (long[] late : lateRuns) {
+                int start = lowerBound(late, fromMsb);
+                int end = open ? late.length : lowerBound(late, toMsb);
+                if (start < end) {
+                    long[] merged = new long[tailMatches.length + end - start];
+                    mergeInto(tailMatches, 0, tailMatches.length, late, start, end, merged, 0);
+                    tailMatches = merged;
+                }
+            }
+            int next = 0;
+
+            int run = firstRunEndingAtOrAfter(fromMsb);
+            int pair = run < runs.size() ? lowerBound(runs.get(run), fromMsb) : 0;
+            for (; run < runs.size(); run++, pair = 0) {
+                long[] keys = runs.get(run);
+                for (; pair < keys.length; pair += 2) {
+                    if (!open && Long.compareUnsigned(keys[pair], toMsb) >= 0) {
+                        run = runs.size(); // past the range: no later run can match
+                        break;
+                    }
+                    for (; next < tailMatches.length
+                            && compare(tailMatches[next], tailMatches[next + 1], keys[pair], keys[pair + 1]) < 0;
+                            next += 2) {
+                        consumer.accept(tailMatches[next], tailMatches[next + 1]);
+                    }
+                    consumer.accept(keys[pair], keys[pair + 1]);
+                }
+            }
+            for (; next < tailMatches.length; next += 2) {
+                consumer.accept(tailMatches[next], tailMatches[next + 1]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sorts the tail and splits it: the part after the last main run becomes
+     * a new main run, the part before it a new late run. Never touches the
+     * existing main runs.
+     */
+    private void seal() {
+        long[] sealed = sortPairs(Arrays.copyOf(tail, tailSize * 2));
+        tailSize = 0;
+        int split = 0;
+        if (!runs.isEmpty()) {
+            long[] last = runs.get(runs.size() - 1);
+            split = upperBound(sealed, last[last.length - 2], last[last.length - 1]);
+        }
+        if (split > 0) {
+            lateRuns.add(Arrays.copyOf(sealed, split));
+            compactLateRuns();
+        }
+        if (split < sealed.length) {
+            runs.add(split == 0 ? sealed : Arrays.copyOfRange(sealed, split, sealed.length));
+        }
+    }
+
+    /**
+     * Advances late-run compaction by at most this seal's budget: merges the
+     * two newest late runs while the older is at most twice the newer. A
+     * merge that does not fit is continued by the next seal; until it
+     * completes, queries still read both of its inputs.
+     */
+    private void compactLateRuns() {
+        long budget = (long) LATE_MERGE_BUDGET * tailCapacity * 2;
+        while (budget > 0) {
+            if (compaction == null) {
+                int count = lateRuns.size();
+                if (count < 2 || lateRuns.get(count - 2).length > 2L * lateRuns.get(count - 1).length) {
+                    return;
+                }
+                compaction = new Compaction(lateRuns.get(count - 2), lateRuns.get(count - 1));
+            }
+            budget -= compaction.step(budget);
+            if (compaction.isDone()) {
+                // Runs added meanwhile went to the end, so the inputs are still adjacent
+                int older = lateRuns.indexOf(compaction.older);
+                lateRuns.set(older, compaction.merged);
+                lateRuns.remove(older + 1);
+                compaction = null;
+            }
+        }
+    }
+
+    /** Index of the first run whose last key is at or after {@code (msb, 0)}. */
+    /**
+     * Epoch milliseconds of {@code instant} clamped to the 48-bit timestamp
+     * range: 0 before the epoch, {@code MAX_MILLIS + 1} from the end of the
+     * range on. {@code Instant.MIN} and {@code Instant.MAX} are accepted.
+     *
+     * @param roundUp round a partial millisecond up (exclusive end) instead
+     *                of down (inclusive start)
+     */
+    private static long clampedMillis(Instant instant, boolean roundUp) {
+        if (instant.isBefore(Instant.EPOCH)) {
+            return 0;
+        }
+        if (!instant.isBefore(END_INSTANT)) {
+            return MAX_MILLIS + 1;
+        }
+        return instant.toEpochMilli() + (roundUp && instant.getNano() % 1_000_000 != 0 ? 1 : 0);
+    }
+
+    private int firstRunEndingAtOrAfter(long msb) {
+        return firstRunEndingAtOrAfter(msb, 0);
+    }
+
+    private int firstRunEndingAtOrAfter(long msb, long lsb) {
+        int low = 0;
+        int high = runs.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            long[] keys = runs.get(mid);
+            if (compare(keys[keys.length - 2], keys[keys.length - 1], msb, lsb) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** Index of the first pair after {@code (msb, lsb)}. */
+    private static int upperBound(long[] keys, long msb, long lsb) {
+        int low = 0;
+        int high = keys.length / 2;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(keys[mid * 2], keys[mid * 2 + 1], msb, lsb) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low * 2;
+    }
+
+    /** Index of the first pair whose msb is at or after {@code msb}. */
+    private static int lowerBound(long[] keys, long msb) {
+        int low = 0;
+        int high = keys.length / 2;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(keys[mid * 2], msb) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low * 2;
+    }
+
+    private static int compare(long msb1, long lsb1, long msb2, long lsb2) {
+        int byMsb = Long.compareUnsigned(msb1, msb2);
+        return byMsb != 0 ? byMsb : Long.compareUnsigned(lsb1, lsb2);
+    }
+
+    /**
+     * Sorts {@code [msb, lsb]} pairs in place. Time-ordered input is usually
+     * already sorted, which is detected in one pass; otherwise a bottom-up
+     * merge sort runs over a scratch copy.
+     */
+    private static long[] sortPairs(long[] pairs) {
+        boolean sorted = true;
+        for (int i = 2; i < pairs.length && sorted; i += 2) {
+            sorted = compare(pairs[i - 2], pairs[i - 1], pairs[i], pairs[i + 1]) <= 0;
+        }
+        if (sorted) {
+            return pairs;
+        }
+        long[] source = pairs;
+        long[] target = new long[pairs.length];
+        for (int width = 2; width < pairs.length; width <<= 1) {
+            for (int start = 0; start < pairs.length; start += width << 1) {
+                int middle = Math.min(start + width, pairs.length);
+                int end = Math.min(start + (width << 1), pairs.length);
+                mergeInto(source, start, middle, source, middle, end, target, start);
+            }
+            long[] swap = source;
+            source = target;
+            target = swap;
+        }
+        return source;
+    }
+
+    private static void mergeInto(long[] left, int leftFrom, int leftTo, long[] right, int rightFrom, int rightTo,
+            long[] target, int targetFrom) {
+        int l = leftFrom;
+        int r = rightFrom;
+        int t = targetFrom;
+        while (l < leftTo && r < rightTo) {
+            if (compare(left[l], left[l + 1], right[r], right[r + 1]) <= 0) {
+                target[t++] = left[l++];
+                target[t++] = left[l++];
+            } else {
+                target[t++] = right[r++];
+                target[t++] = right[r++];
+            }
+        }
+        System.arraycopy(left, l, target, t, leftTo - l);
+        System.arraycopy(right, r, target, t + leftTo - l, rightTo - r);
+    }
+
+    /** Incremental merge of two late runs into one. */
+    private static final class Compaction {
+        private final long[] older;
+        private final long[] newer;
+        private final long[] merged;
+        private int fromOlder;
+        private int fromNewer;
+
+        private Compaction(long[] older, long[] newer) {
+            this.older = older;
+            this.newer = newer;
+            this.merged = new long[older.length + newer.length];
+        }
+
+        /** Moves up to {@code budget} longs into the merged run; returns how many. */
+        private int step(long budget) {
+            int start = fromOlder + fromNewer;
+            int target = start;
+            while (target < merged.length && target - start < budget) {
+                if (fromNewer == newer.length || fromOlder < older.length
+                        && compare(older[fromOlder], older[fromOlder + 1], newer[fromNewer], newer[fromNewer + 1]) <= 0) {
+                    merged[target++] = older[fromOlder++];
+                    merged[target++] = older[fromOlder++];
+                } else {
+                    merged[target++] = newer[fromNewer++];
+                    merged[target++] = newer[fromNewer++];
+                }
+            }
+            return target - start;
+        }
+
+        private boolean isDone() {
+            return fromOlder + fromNewer == merged.length;
+        }
+    }
+
+    @FunctionalInterface
+    private interface IdConsumer {
+        void accept(long msb, long lsb);
+    }
+}
@@ -0,0 +1,56 @@
+package com.skillsjava.clock;
+
+import java.time.Duration;
+
+/**
+ * Source of monotonic nanos and wall-clock millis.
+ * <p>
+ * {@link #precise()} reads the system clocks on every call. A
+ * {@link CoarseClock} returns values a background thread published at most
+ * one resolution ago, which turns each read into a plain memory load for
+ * hot loops on hosts where {@code System.nanoTime()} is expensive (some
+ * virtualized clock sources fall back to a syscall).
+ * <p>
+ * Both keep the guarantees of the system clocks they wrap: {@link #nanoTime()}
+ * never goes backwards and is only meaningful as a difference, while
+ * {@link #currentTimeMillis()} is calendar time and may jump when the system
+ * clock is adjusted.
+ */
+public interface Clock {
+
+    /** Monotonic nanos, as {@code System.nanoTime()}: use for durations. */
+    long nanoTime();
+
+    /** Unix epoch millis, as {@code System.currentTimeMillis()}: use for timestamps. */
+    long currentTimeMillis();
+
+    /** Reads the system clocks on every call. */
+    static Clock precise() {
+        return SystemClock.INSTANCE;
+    }
+
+    /**
+     * Starts a clock that is refreshed every {@code resolution} by a daemon
+     * thread; close it to stop the thread.
+     */
+    static CoarseClock coarse(Duration resolution) {
+        return new CoarseClock(resolution);
+    }
+
+    /**
+     * The system clocks, read directly.
+     */
+    enum SystemClock implements Clock {
+        INSTANCE;
+
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.skillsjava.clock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Benchmark: cost of a clock read vs how stale the reading is.
+ * <p>
+ * For each source, measures the average cost of one read in a tight loop,
+ * then samples it against {@code System.nanoTime()} to report the mean and
+ * worst lag. A plain {@code nanoTime} harness: compare orders of magnitude.
+ * On hosts with a slow clock source (e.g. VMs falling back from TSC to a
+ * syscall) the direct reads get much more expensive; the coarse reads do not.
+ * Arguments (all optional): {@code readsPerRound}.
+ */
+public final class ClockBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClockBenchmark.class);
+    private static final int LAG_SAMPLES = 20_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int reads = args.length > 0 ? Integer.parseInt(args[0]) : 50_000_000;
+
+        logger.info("=== Clock read cost vs accuracy ({} reads per row) ===", reads);
+        run("System.nanoTime", reads, System::nanoTime, null);
+        run("System.currentTimeMillis", reads, System::currentTimeMillis, null);
+        Clock precise = Clock.precise();
+        run("Clock.precise().nanoTime", reads, precise::nanoTime, precise);
+        for (Duration resolution : new Duration[] {Duration.ofMillis(10), Duration.ofMillis(1), Duration.ofNanos(100_000)}) {
+            try (CoarseClock coarse = Clock.coarse(resolution)) {
+                run("Clock.coarse(" + resolution.toNanos() / 1_000 + " µs).nanoTime", reads, coarse::nanoTime, coarse);
+            }
+        }
+    }
+
+    private static void run(String label, int reads, LongSupplier read, Clock lagged) throws InterruptedException {
+        measure(read, reads / 5); // warm-up
+        long start = System.nanoTime();
+        long sink = measure(read, reads);
+        double nanosPerRead = (double) (System.nanoTime() - start) / reads;
+
+        if (lagged == null) {
+            logger.info(String.format("%-32s %6.1f ns/read                                [%d]",
+                    label, nanosPerRead, sink & 1));
+            return;
+        }
+        // Lag: how far the reading trails the real monotonic clock
+        long totalLag = 0;
+        long maxLag = 0;
+        for (int i = 0; i < LAG_SAMPLES; i++) {
+            long reading = lagged.nanoTime();
+            long lag = System.nanoTime() - reading;
+            totalLag += lag;
+            maxLag = Math.max(maxLag, lag);
+            if ((i & 1023) == 0) {
+                Thread.sleep(0, 37_000); // sample at different points of the tick
+            }
+        }
+        logger.info(String.format("%-32s %6.1f ns/read  lag mean %9.1f µs  max %9.1f µs [%d]",
+                label, nanosPerRead, totalLag / 1e3 / LAG_SAMPLES, maxLag / 1e3, sink & 1));
+    }
+
+    private static long measure(LongSupplier read, int reads) {
+        long sink = 0;
+        for (int i = 0; i < reads; i++) {
+            sink += read.getAsLong();
+        }
+        return sink;
+    }
+}
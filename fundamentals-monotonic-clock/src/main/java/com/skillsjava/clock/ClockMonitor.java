@@ -0,0 +1,244 @@
+package com.skillsjava.clock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Background sanity check of the wall clock against the monotonic clock.
+ * <p>
+ * A daemon thread reads {@code nanoTime} and {@code currentTimeMillis}
+ * together every {@code interval} and tracks their offset
+ * ({@code wall - monotonic}). Both clocks advance at the same rate unless
+ * something adjusts the wall clock, so:
+ * <ul>
+ * <li>a jump in the offset between two samples is a wall-clock
+ * <b>step</b> (NTP step, manual change), forward or backward;</li>
+ * <li>a steady change of the offset over a minute, beyond
+ * {@code slewPpm}, is a <b>slew</b> (NTP speeding up or slowing down the
+ * wall clock to correct it);</li>
+ * <li>a sample that arrives much later than {@code interval} is a
+ * <b>stall</b>: the thread could not run, typically a GC or safepoint pause,
+ * or the host stealing the CPU. Every thread was likely stalled too.</li>
+ * </ul>
+ * Each detection is published to listeners as a {@link ClockEvent}, counted
+ * in {@link #stats()}, and kept in a short history so
+ * {@link #isTrustworthy(long, long)} can tell whether a measured interval
+ * overlapped one. Overhead is one wake-up per interval.
+ */
+public final class ClockMonitor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClockMonitor.class);
+    private static final Duration DEFAULT_INTERVAL = Duration.ofMillis(10);
+    private static final Duration DEFAULT_STEP_THRESHOLD = Duration.ofMillis(10);
+    private static final Duration DEFAULT_STALL_THRESHOLD = Duration.ofMillis(50);
+    /** Long enough that the 1 ms resolution of the wall clock stays below ~20 ppm. */
+    private static final Duration SLEW_WINDOW = Duration.ofSeconds(60);
+    private static final double DEFAULT_SLEW_PPM = 100;
+    private static final int HISTORY = 1_024;
+    /** A sample is retried when its two nanoTime reads are further apart than this. */
+    private static final long MAX_SAMPLE_SPREAD_NANOS = 100_000;
+
+    private final Clock clock;
+    private final long intervalNanos;
+    private final long stepThresholdNanos;
+    private final long stallThresholdNanos;
+    private final double slewPpm;
+    private final List<Consumer<ClockEvent>> listeners = new CopyOnWriteArrayList<>();
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder steps = new LongAdder();
+    private final LongAdder slews = new LongAdder();
+    private final LongAdder stalls = new LongAdder();
+    /** Guarded by itself. */
+    private final Deque<ClockEvent> history = new ArrayDeque<>();
+    private final Thread sampler;
+    private volatile boolean running = true;
+
+    /**
+     * Samples the system clocks every 10 ms; steps of 10 ms, slews beyond
+     * 100 ppm and stalls of 50 ms are reported.
+     */
+    public ClockMonitor() {
+        this(Clock.precise(), DEFAULT_INTERVAL, DEFAULT_STEP_THRESHOLD, DEFAULT_STALL_THRESHOLD, DEFAULT_SLEW_PPM);
+    }
+
+    /**
+     * @param clock          clocks to watch; must read the real time, so not
+     *                       a {@link CoarseClock}
+     * @param interval       time between samples
+     * @param stepThreshold  smallest offset jump reported as a step; keep it
+     *                       above the wall clock's resolution
+     * @param stallThreshold extra delay, beyond {@code interval}, reported as a stall
+     * @param slewPpm        offset drift rate over 60 s reported as a slew
+     */
+    public ClockMonitor(Clock clock, Duration interval, Duration stepThreshold, Duration stallThreshold,
+            double slewPpm) {
+        this.clock = Objects.requireNonNull(clock, "Clock cannot be null");
+        this.intervalNanos = positive(interval, "Interval").toNanos();
+        this.stepThresholdNanos = positive(stepThreshold, "Step threshold").toNanos();
+        this.stallThresholdNanos = positive(stallThreshold, "Stall threshold").toNanos();
+        if (!(slewPpm > 0)) {
+            throw new IllegalArgumentException("Slew ppm must be positive");
+        }
+        this.slewPpm = slewPpm;
+        this.sampler = Thread.ofPlatform()
+                .name("clock-monitor")
+                .daemon()
+                .start(this::run);
+    }
+
+    public void addListener(Consumer<ClockEvent> listener) {
+        listeners.add(Objects.requireNonNull(listener, "Listener cannot be null"));
+    }
+
+    /**
+     * Whether no step, slew or stall was detected between two
+     * {@code nanoTime} readings of this monitor's clock. Only the last 1,024
+     * events are remembered, and detection lags by up to one interval.
+     */
+    public boolean isTrustworthy(long startNanos, long endNanos) {
+        synchronized (history) {
+            for (ClockEvent event : history) {
+                if (event.startNanos() - endNanos < 0 && startNanos - event.endNanos() < 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Events still in the history, oldest first. */
+    public List<ClockEvent> recentEvents() {
+        synchronized (history) {
+            return new ArrayList<>(history);
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(samples.sum(), steps.sum(), slews.sum(), stalls.sum());
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(sampler);
+    }
+
+    private void run() {
+        long[] previous = sample();
+        long[] windowStart = previous;
+        long stepsInWindowNanos = 0;
+        while (running) {
+            LockSupport.parkNanos(this, intervalNanos);
+            long[] current = sample();
+            samples.increment();
+
+            long elapsedNanos = current[0] - previous[0];
+            long offsetChangeNanos = offset(current) - offset(previous);
+            if (elapsedNanos - intervalNanos > stallThresholdNanos) {
+                stalls.increment();
+                publish(new ClockEvent(ClockEvent.Type.NANO_TIME_STALL, previous[0], current[0],
+                        Instant.ofEpochMilli(current[1]), Duration.ofNanos(elapsedNanos - intervalNanos)));
+            }
+            if (Math.abs(offsetChangeNanos) > stepThresholdNanos) {
+                steps.increment();
+                stepsInWindowNanos += offsetChangeNanos;
+                publish(new ClockEvent(offsetChangeNanos > 0
+                        ? ClockEvent.Type.WALL_CLOCK_STEP_FORWARD : ClockEvent.Type.WALL_CLOCK_STEP_BACKWARD,
+                        previous[0], current[0], Instant.ofEpochMilli(current[1]),
+                        Duration.ofNanos(Math.abs(offsetChangeNanos))));
+            }
+
+            long windowNanos = current[0] - windowStart[0];
+            if (windowNanos >= SLEW_WINDOW.toNanos()) {
+                // Drift over the window that the steps do not explain
+                long driftNanos = offset(current) - offset(windowStart) - stepsInWindowNanos;
+                if (Math.abs(driftNanos) * 1e6 / windowNanos > slewPpm) {
+                    slews.increment();
+                    publish(new ClockEvent(ClockEvent.Type.WALL_CLOCK_SLEW, windowStart[0], current[0],
+                            Instant.ofEpochMilli(current[1]), Duration.ofNanos(Math.abs(driftNanos))));
+                }
+                windowStart = current;
+                stepsInWindowNanos = 0;
+            }
+            previous = current;
+        }
+    }
+
+    /**
+     * Reads {@code [nanoTime, currentTimeMillis]} as one pair: the wall
+     * clock is read between two monotonic reads, and the pair is retried if
+     * the thread was descheduled in between.
+     */
+    private long[] sample() {
+        while (true) {
+            long before = clock.nanoTime();
+            long wallMillis = clock.currentTimeMillis();
+            long after = clock.nanoTime();
+            if (after - before <= MAX_SAMPLE_SPREAD_NANOS || !running) {
+                return new long[] {before + (after - before) / 2, wallMillis};
+            }
+        }
+    }
+
+    private static long offset(long[] sample) {
+        return sample[1] * 1_000_000 - sample[0];
+    }
+
+    private void publish(ClockEvent event) {
+        synchronized (history) {
+            if (history.size() == HISTORY) {
+                history.removeFirst();
+            }
+            history.addLast(event);
+        }
+        for (Consumer<ClockEvent> listener : listeners) {
+            // A throwing listener must not end the sampler and with it all detection
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                logger.warn("Clock event listener failed on {}", event, e);
+            }
+        }
+    }
+
+    private static Duration positive(Duration duration, String name) {
+        Objects.requireNonNull(duration, name + " cannot be null");
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return duration;
+    }
+
+    /**
+     * Something that makes measurements between {@code startNanos} and
+     * {@code endNanos} (monotonic readings) untrustworthy.
+     *
+     * @param detectedAt wall-clock time of detection, as read after the event
+     * @param magnitude  size of the step, drift over the slew window, or
+     *                   stall time beyond the sampling interval
+     */
+    public record ClockEvent(Type type, long startNanos, long endNanos, Instant detectedAt, Duration magnitude) {
+
+        public enum Type {
+            WALL_CLOCK_STEP_FORWARD,
+            WALL_CLOCK_STEP_BACKWARD,
+            WALL_CLOCK_SLEW,
+            NANO_TIME_STALL
+        }
+    }
+
+    public record Stats(long samples, long steps, long slews, long stalls) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.skillsjava.clock;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link Clock} whose readings are published by a ticker thread.
+ * <p>
+ * The ticker reads {@code System.nanoTime()} and
+ * {@code System.currentTimeMillis()} once per resolution and stores them
+ * with opaque writes; readers use opaque loads, which cost about as much as
+ * reading a field. Opaque access is enough: each value is a single
+ * {@code long} with one writer, and nothing else is published with it.
+ * <p>
+ * Trade-off: a reading lags the real clock by up to one resolution, plus
+ * however long the ticker waits to be scheduled (on a busy or single-core
+ * host this can be far longer). {@code nanoTime()} readings still never go
+ * backwards; {@code currentTimeMillis()} is the wall clock, which NTP or an
+ * operator can step back, and a cached copy follows it there. Use
+ * {@link Clock#precise()} where exact durations matter, e.g. for short
+ * operations timed with {@link LatencyRecorder}.
+ */
+public final class CoarseClock implements Clock, AutoCloseable {
+
+    private static final VarHandle NANOS;
+    private static final VarHandle MILLIS;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            NANOS = lookup.findVarHandle(CoarseClock.class, "nanos", long.class);
+            MILLIS = lookup.findVarHandle(CoarseClock.class, "millis", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long resolutionNanos;
+    private final Thread ticker;
+    @SuppressWarnings("unused") // accessed through NANOS
+    private long nanos;
+    @SuppressWarnings("unused") // accessed through MILLIS
+    private long millis;
+    private volatile boolean running = true;
+
+    CoarseClock(Duration resolution) {
+        Objects.requireNonNull(resolution, "Resolution cannot be null");
+        if (resolution.isNegative() || resolution.isZero()) {
+            throw new IllegalArgumentException("Resolution must be positive");
+        }
+        this.resolutionNanos = resolution.toNanos();
+        tick();
+        this.ticker = Thread.ofPlatform()
+                .name("coarse-clock-ticker")
+                .daemon()
+                .start(this::run);
+    }
+
+    @Override
+    public long nanoTime() {
+        return (long) NANOS.getOpaque(this);
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return (long) MILLIS.getOpaque(this);
+    }
+
+    public Duration resolution() {
+        return Duration.ofNanos(resolutionNanos);
+    }
+
+    /** Stops the ticker; readings stay frozen at the last tick. */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(ticker);
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(this, resolutionNanos);
+            tick();
+        }
+    }
+
+    private void tick() {
+        NANOS.setOpaque(this, System.nanoTime());
+        MILLIS.setOpaque(this, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,277 @@
+package com.skillsjava.clock;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Records {@code System.nanoTime()} durations into a log-linear histogram.
+ * <p>
+ * Buckets are exact up to 255 ns and then split every power of two into 128
+ * linear sub-buckets, so any recorded value is reported within 0.8% (like an
+ * HdrHistogram with two significant digits). Values up to about 18 minutes
+ * are tracked; longer ones are counted in the top bucket.
+ * <p>
+ * Recording is lock-free and allocation-free. The counts are striped by
+ * thread id over a few independent arrays, so concurrent threads almost never
+ * touch the same cache lines, and memory stays bounded however many threads
+ * (virtual ones included) record.
+ * <p>
+ * Counts only ever grow. {@link #intervalSnapshot()} returns what was
+ * recorded since the previous interval snapshot by subtracting the counts it
+ * saw last time, so writers are never paused or reset under their feet.
+ * <p>
+ * Only monotonic-clock durations belong here: wall-clock differences can be
+ * wrong or negative when the system clock is adjusted (see
+ * {@link MonotonicClockDemo}). A negative duration is recorded as zero.
+ */
+public final class LatencyRecorder {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final long MAX_TRACKABLE_NANOS = (1L << 40) - 1;
+    private static final int BUCKETS = indexOf(MAX_TRACKABLE_NANOS) + 1;
+    private static final VarHandle COUNTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final Clock clock;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    /** Guarded by {@code this}: cumulative counts seen by the last interval snapshot. */
+    private long[] intervalStart = new long[BUCKETS];
+
+    public LatencyRecorder() {
+        this(Clock.precise());
+    }
+
+    /**
+     * @param clock source of the nanos used by {@link #recordSince} and
+     *              {@code time}; a coarse clock limits their precision to
+     *              its resolution
+     */
+    public LatencyRecorder(Clock clock) {
+        this.clock = Objects.requireNonNull(clock, "Clock cannot be null");
+        int stripeCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1) << 1;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    /**
+     * Records one duration, in nanoseconds, measured with a monotonic clock.
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(0, nanos), MAX_TRACKABLE_NANOS);
+        long[] counts = stripes[stripeOf(Thread.currentThread().threadId())].counts;
+        COUNTS.getAndAdd(counts, indexOf(value), 1L);
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos}, a reading of this
+     * recorder's clock.
+     */
+    public void recordSince(long startNanos) {
+        record(clock.nanoTime() - startNanos);
+    }
+
+    public void time(Runnable task) {
+        long start = clock.nanoTime();
+        try {
+            task.run();
+        } finally {
+            recordSince(start);
+        }
+    }
+
+    public <T> T time(Supplier<T> task) {
+        long start = clock.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            recordSince(start);
+        }
+    }
+
+    /**
+     * Everything recorded since this recorder was created.
+     */
+    public Snapshot cumulativeSnapshot() {
+        long[] counts = new long[BUCKETS];
+        collect(counts);
+        return new Snapshot(counts);
+    }
+
+    /**
+     * Everything recorded since the previous call (or since creation), and
+     * starts a new interval. Meant to be called by one reporter thread.
+     */
+    public synchronized Snapshot intervalSnapshot() {
+        long[] cumulative = new long[BUCKETS];
+        collect(cumulative);
+        long[] interval = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            interval[i] = cumulative[i] - intervalStart[i];
+        }
+        intervalStart = cumulative;
+        return new Snapshot(interval);
+    }
+
+    /** Adds every stripe into {@code counts}. */
+    private void collect(long[] counts) {
+        for (Stripe stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += (long) COUNTS.getVolatile(stripe.counts, i);
+            }
+        }
+    }
+
+    private int stripeOf(long threadId) {
+        long mixed = threadId * 0x9E37_79B9_7F4A_7C15L;
+        return (int) (mixed >>> 32) & stripeMask;
+    }
+
+    // --- Bucket layout ---
+
+    /**
+     * Values below {@code 2 * SUB_BUCKETS} map to themselves; above that each
+     * power of two {@code 2^(exponent + SUB_BUCKET_BITS)} is split into
+     * {@code SUB_BUCKETS} equal parts of width {@code 2^exponent}.
+     */
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS << 1) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (exponent << SUB_BUCKET_BITS) + (int) (value >>> exponent);
+    }
+
+    static long lowestValueAt(int index) {
+        if (index < SUB_BUCKETS << 1) {
+            return index;
+        }
+        int exponent = (index >>> SUB_BUCKET_BITS) - 1;
+        return (long) (index - (exponent << SUB_BUCKET_BITS)) << exponent;
+    }
+
+    static long highestValueAt(int index) {
+        return lowestValueAt(index + 1) - 1;
+    }
+
+    /**
+     * One stripe's counts. Separate arrays keep stripes on separate cache lines.
+     */
+    private static final class Stripe {
+        final long[] counts = new long[BUCKETS];
+    }
+
+    /**
+     * Immutable histogram of the durations recorded over some period.
+     * Percentiles report the highest value of the bucket they fall in, so
+     * they never understate a latency; the mean uses bucket midpoints.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+
+        Snapshot(long[] counts) {
+            this.counts = counts;
+            long total = 0;
+            for (long c : counts) {
+                total += c;
+            }
+            this.count = total;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public double meanNanos() {
+            if (count == 0) {
+                return 0;
+            }
+            double sum = 0;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    sum += counts[i] * ((lowestValueAt(i) + highestValueAt(i)) / 2.0);
+                }
+            }
+            return sum / count;
+        }
+
+        public long minNanos() {
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    return lowestValueAt(i);
+                }
+            }
+            return 0;
+        }
+
+        public long maxNanos() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] != 0) {
+                    return highestValueAt(i);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * @param percentile between 0 and 100, e.g. {@code 99.9}
+         */
+        public long valueAtPercentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100");
+            }
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return highestValueAt(i);
+                }
+            }
+            return maxNanos();
+        }
+
+        public long p50() {
+            return valueAtPercentile(50);
+        }
+
+        public long p90() {
+            return valueAtPercentile(90);
+        }
+
+        public long p99() {
+            return valueAtPercentile(99);
+        }
+
+        public long p999() {
+            return valueAtPercentile(99.9);
+        }
+
+        public long p9999() {
+            return valueAtPercentile(99.99);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d mean=%.3fms p50=%.3fms p90=%.3fms p99=%.3fms p99.9=%.3fms p99.99=%.3fms max=%.3fms",
+                    count, meanNanos() / 1e6, millis(p50()), millis(p90()), millis(p99()), millis(p999()),
+                    millis(p9999()), millis(maxNanos()));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
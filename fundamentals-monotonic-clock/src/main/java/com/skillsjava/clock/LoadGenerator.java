@@ -0,0 +1,154 @@
+package com.skillsjava.clock;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load driver: sends requests at a constant arrival rate and
+ * measures response time from when each request <em>should</em> have started.
+ * <p>
+ * A closed loop ("call, wait for the answer, call again") slows down with the
+ * system under test: while a call is stuck, the requests that real users
+ * would have sent during the stall are never sent, so they are never
+ * measured. That is coordinated omission, and it hides queueing.
+ * <p>
+ * Here request {@code i} is due at {@code start + i / rate}, measured with
+ * {@code System.nanoTime()}. The dispatcher hands it to the executor at
+ * that moment whether or not earlier requests finished; with the default
+ * executor (one virtual thread per request) nothing limits how many are in
+ * flight, as with real users. Two histograms are kept:
+ * <ul>
+ * <li><b>response time</b>: completion minus intended start, what a user
+ * experiences, waiting included;</li>
+ * <li><b>service time</b>: completion minus actual start, what a closed-loop
+ * benchmark would have reported.</li>
+ * </ul>
+ * If the dispatcher itself falls behind, the late requests are sent at once
+ * and still measured from their intended start, and {@code lateDispatches}
+ * counts them.
+ */
+public final class LoadGenerator {
+
+    private final double requestsPerSecond;
+    private final Duration duration;
+    private final Executor executor;
+
+    /**
+     * Runs each request on its own virtual thread.
+     */
+    public LoadGenerator(double requestsPerSecond, Duration duration) {
+        this(requestsPerSecond, duration, null);
+    }
+
+    /**
+     * @param executor runs the requests; {@code null} for one virtual thread
+     *                 per request. A bounded pool turns its queueing into
+     *                 response time, which is then reported, not hidden.
+     */
+    public LoadGenerator(double requestsPerSecond, Duration duration, Executor executor) {
+        if (!(requestsPerSecond > 0)) {
+            throw new IllegalArgumentException("Requests per second must be positive");
+        }
+        Objects.requireNonNull(duration, "Duration cannot be null");
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        this.requestsPerSecond = requestsPerSecond;
+        this.duration = duration;
+        this.executor = executor;
+    }
+
+    public Result run(Runnable target) throws InterruptedException {
+        Objects.requireNonNull(target, "Target cannot be null");
+        return run(() -> {
+            target.run();
+            return null;
+        });
+    }
+
+    /**
+     * Drives {@code target} for the configured duration, then waits for every
+     * sent request to finish. A request that throws counts as failed; its
+     * time is still recorded.
+     *
+     * @throws InterruptedException if interrupted while dispatching or
+     *                              waiting; requests already sent still run
+     */
+    public Result run(Callable<?> target) throws InterruptedException {
+        Objects.requireNonNull(target, "Target cannot be null");
+        long plannedRequests = (long) (requestsPerSecond * duration.toNanos() / 1e9);
+        int requests = (int) Math.min(Integer.MAX_VALUE, Math.max(1, plannedRequests));
+        double intervalNanos = 1e9 / requestsPerSecond;
+        LatencyRecorder responseTime = new LatencyRecorder();
+        LatencyRecorder serviceTime = new LatencyRecorder();
+        LongAdder failed = new LongAdder();
+        long lateDispatches = 0;
+        CountDownLatch finished = new CountDownLatch(requests);
+
+        ExecutorService ownedExecutor = executor == null ? Executors.newVirtualThreadPerTaskExecutor() : null;
+        Executor requestExecutor = executor == null ? ownedExecutor : executor;
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < requests; i++) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                long intendedStart = start + (long) (i * intervalNanos);
+                long wait = intendedStart - System.nanoTime();
+                if (wait < -intervalNanos) {
+                    lateDispatches++;
+                }
+                // Parking can wake early; never send before the intended time
+                while (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                    // An interrupted thread no longer parks: stop instead of spinning
+                    if (Thread.interrupted()) {
+                        throw new InterruptedException();
+                    }
+                    wait = intendedStart - System.nanoTime();
+                }
+                requestExecutor.execute(() -> {
+                    long actualStart = System.nanoTime();
+                    try {
+                        target.call();
+                    } catch (Exception e) {
+                        failed.increment();
+                    } finally {
+                        long end = System.nanoTime();
+                        responseTime.record(end - intendedStart);
+                        serviceTime.record(end - actualStart);
+                        finished.countDown();
+                    }
+                });
+            }
+            finished.await();
+        } finally {
+            if (ownedExecutor != null) {
+                ownedExecutor.shutdown();
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        return new Result(requests, failed.sum(), lateDispatches, elapsed,
+                responseTime.cumulativeSnapshot(), serviceTime.cumulativeSnapshot());
+    }
+
+    /**
+     * Outcome of one run.
+     *
+     * @param responseTime   completion minus intended start: the corrected numbers
+     * @param serviceTime    completion minus actual start: what coordinated
+     *                       omission would have shown
+     * @param lateDispatches requests the dispatcher sent more than one
+     *                       interval after their intended start
+     */
+    public record Result(long sent, long failed, long lateDispatches, Duration elapsed,
+                         LatencyRecorder.Snapshot responseTime, LatencyRecorder.Snapshot serviceTime) {
+    }
+}
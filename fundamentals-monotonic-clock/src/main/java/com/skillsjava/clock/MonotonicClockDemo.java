@@ -2,8 +2,14 @@ package com.skillsjava.clock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Demo: Monotonic Clock vs Wall Clock.
@@ -18,6 +24,10 @@ public final class MonotonicClockDemo {
 
         demonstrateWallClockUsage();
         demonstrateMonotonicClockUsage();
+        demonstrateLatencyRecorder();
+        demonstrateCoordinatedOmission();
+        demonstrateClockMonitor();
+        demonstratePauseAttribution();
 
         logger.info("\n--- Key Differences ---");
         logger.info(
@@ -69,6 +79,130 @@ public final class MonotonicClockDemo {
         logger.info("Note: This measurement is independent of system clock changes and has nanosecond precision.");
     }
 
+    /**
+     * ✅ RIGHT at scale: many nanoTime durations summarized as percentiles.
+     */
+    private static void demonstrateLatencyRecorder() throws InterruptedException {
+        logger.info("--- Recording many durations (LatencyRecorder) ---");
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        Thread[] workers = new Thread[4];
+        for (int t = 0; t < workers.length; t++) {
+            workers[t] = Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    // Mostly ~20 µs of work, occasionally 50x slower
+                    long spinNanos = ThreadLocalRandom.current().nextInt(100) == 0 ? 1_000_000 : 20_000;
+                    recorder.time(() -> spin(spinNanos));
+                }
+            });
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        logger.info("Interval 1: {}", recorder.intervalSnapshot());
+        recorder.time(() -> spin(5_000_000));
+        logger.info("Interval 2: {}", recorder.intervalSnapshot());
+        logger.info("Total:      {}", recorder.cumulativeSnapshot());
+        logger.info("Note: The mean hides the slow 1%; p99 and above show it.\n");
+    }
+
+    /**
+     * ✅ RIGHT under load: latency measured from when a request should have started.
+     */
+    private static void demonstrateCoordinatedOmission() throws InterruptedException {
+        logger.info("--- Load at a constant arrival rate (LoadGenerator) ---");
+
+        // A single-threaded service: 1 ms per call, and one 200 ms stall
+        ReentrantLock serviceLock = new ReentrantLock();
+        AtomicInteger calls = new AtomicInteger();
+        Runnable service = () -> {
+            serviceLock.lock();
+            try {
+                spin(calls.incrementAndGet() == 500 ? 200_000_000 : 1_000_000);
+            } finally {
+                serviceLock.unlock();
+            }
+        };
+
+        LoadGenerator.Result result = new LoadGenerator(200, Duration.ofSeconds(5)).run(service);
+        logger.info("Sent {} requests at 200/s in {} ms", result.sent(), result.elapsed().toMillis());
+        logger.info("Service time  (closed-loop view): {}", result.serviceTime());
+        logger.info("Response time (from intended start): {}", result.responseTime());
+        logger.info("Note: Only one call was slow, but every request that arrived during the stall waited for it.\n");
+    }
+
+    /**
+     * ✅ RIGHT in production: detect when the clocks themselves misbehave.
+     */
+    private static void demonstrateClockMonitor() throws InterruptedException {
+        logger.info("--- Watching the clocks (ClockMonitor) ---");
+
+        // The real clocks, except that the wall clock can be stepped like NTP would
+        long[] wallShiftMillis = {0};
+        Clock steppableClock = new Clock() {
+            @Override
+            public long nanoTime() {
+                return System.nanoTime();
+            }
+
+            @Override
+            public long currentTimeMillis() {
+                return System.currentTimeMillis() + wallShiftMillis[0];
+            }
+        };
+        try (ClockMonitor monitor = new ClockMonitor(steppableClock, Duration.ofMillis(10), Duration.ofMillis(10),
+                Duration.ofMillis(50), 100)) {
+            monitor.addListener(event -> logger.warn("Clock event: {} by {} ms",
+                    event.type(), event.magnitude().toMillis()));
+
+            long start = System.nanoTime();
+            Thread.sleep(100);
+            wallShiftMillis[0] = -1_500; // NTP steps the wall clock back 1.5 s
+            Thread.sleep(100);
+            long end = System.nanoTime();
+            Thread.sleep(20); // let the monitor take its next sample
+
+            logger.info("Measurement across the step trustworthy? {}", monitor.isTrustworthy(start, end));
+            logger.info("Monitor stats: {}\n", monitor.stats());
+        }
+    }
+
+    /**
+     * ✅ RIGHT when a section is slow: was it our code or the JVM?
+     */
+    private static void demonstratePauseAttribution() throws InterruptedException {
+        logger.info("--- Attributing slow sections to JVM pauses (PauseAttribution) ---");
+
+        LatencyRecorder sections = new LatencyRecorder();
+        try (PauseAttribution attribution = new PauseAttribution(sections, Duration.ofMillis(1),
+                Duration.ofMillis(20))) {
+            attribution.addListener(slow -> logger.warn("Slow section: {}", slow));
+
+            attribution.time("slow code", () -> spin(30_000_000));
+            attribution.time("code hit by a GC", () -> {
+                spin(5_000_000);
+                List<long[]> live = new ArrayList<>();
+                for (int i = 0; i < 2_000; i++) {
+                    live.add(new long[16_384]); // ~256 MB of live data makes the full GC slow
+                }
+                System.gc();
+                logger.info("Kept {} arrays alive through the GC", live.size());
+            });
+            Thread.sleep(200); // slow sections are reported once their GC notifications are in
+
+            logger.info("Hiccups seen by the meter: {}", attribution.hiccups());
+            logger.info("All sections: {}\n", sections.cumulativeSnapshot());
+        }
+    }
+
+    private static void spin(long nanos) {
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < nanos) {
+            Thread.onSpinWait();
+        }
+    }
+
     private static void performWork() throws InterruptedException {
         // Simulating a task that takes around 500ms
         Thread.sleep(500);
@@ -0,0 +1,323 @@
+package com.skillsjava.clock;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Tells how much of a timed section was spent in JVM pauses.
+ * <p>
+ * Two sources feed a short history of pauses, on the {@code nanoTime} scale:
+ * <ul>
+ * <li><b>GC notifications</b> from every {@link GarbageCollectorMXBean}:
+ * collector, cause and millisecond start/end of each stop-the-world
+ * collection. Concurrent cycles (G1 "Concurrent GC", ZGC/Shenandoah
+ * "Cycles") are skipped, as application threads keep running.</li>
+ * <li>A <b>hiccup meter</b>, as in jHiccup: a thread that sleeps for
+ * {@code resolution} in a loop and records how much later than that it
+ * woke up. Anything that stops every thread shows up, including safepoints
+ * that are not GCs, and the OS or hypervisor not scheduling the JVM. On
+ * a saturated machine the meter also stalls because it gets no core, which
+ * is reported the same way: the section was not running either.</li>
+ * </ul>
+ * {@link #time} records a section into a {@link LatencyRecorder}; when it
+ * takes longer than {@code slowThreshold}, listeners receive an
+ * {@link Attribution} ("520 ms, of which 498 ms JVM pause"). GC
+ * notifications arrive shortly after the collection, so slow sections are
+ * attributed by the meter thread a little after they end. The pause time is
+ * the union of the overlapping pauses, so a GC also seen by the meter is
+ * counted once. At most {@value #MAX_PENDING_SECTIONS} slow sections wait
+ * for attribution; beyond that, and after {@link #close()}, they are only
+ * recorded and counted in {@link #droppedSections()}.
+ */
+public final class PauseAttribution implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PauseAttribution.class);
+    private static final Duration DEFAULT_RESOLUTION = Duration.ofMillis(1);
+    private static final Duration DEFAULT_SLOW_THRESHOLD = Duration.ofMillis(50);
+    /** How long after a slow section its GC notifications are waited for. */
+    private static final long ATTRIBUTION_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int HISTORY = 4_096;
+    private static final int MAX_PENDING_SECTIONS = 4_096;
+
+    private final long resolutionNanos;
+    private final long slowThresholdNanos;
+    private final LatencyRecorder sections;
+    private final LatencyRecorder hiccups = new LatencyRecorder();
+    /** {@code nanoTime} value at JVM start, to place GC timestamps (ms of uptime). */
+    private final long jvmStartNanos;
+    /** Guarded by itself. */
+    private final Deque<Pause> pauses = new ArrayDeque<>();
+    private final Queue<PendingSection> slowSections = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingSections = new AtomicInteger();
+    private final LongAdder droppedSections = new LongAdder();
+    private final List<Consumer<Attribution>> listeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> unsubscribers = new ArrayList<>();
+    private final Thread meter;
+    private volatile boolean running = true;
+
+    /**
+     * 1 ms hiccup resolution; sections slower than 50 ms are attributed.
+     */
+    public PauseAttribution(LatencyRecorder sections) {
+        this(sections, DEFAULT_RESOLUTION, DEFAULT_SLOW_THRESHOLD);
+    }
+
+    /**
+     * @param sections      receives the duration of every timed section
+     * @param resolution    hiccup meter sleep; stalls shorter than this are
+     *                      not seen by the meter
+     * @param slowThreshold sections at least this long are attributed
+     */
+    public PauseAttribution(LatencyRecorder sections, Duration resolution, Duration slowThreshold) {
+        this.sections = Objects.requireNonNull(sections, "Sections recorder cannot be null");
+        Objects.requireNonNull(resolution, "Resolution cannot be null");
+        Objects.requireNonNull(slowThreshold, "Slow threshold cannot be null");
+        if (resolution.isNegative() || resolution.isZero()) {
+            throw new IllegalArgumentException("Resolution must be positive");
+        }
+        if (slowThreshold.isNegative() || slowThreshold.isZero()) {
+            throw new IllegalArgumentException("Slow threshold must be positive");
+        }
+        this.resolutionNanos = resolution.toNanos();
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.jvmStartNanos = System.nanoTime()
+                - TimeUnit.MILLISECONDS.toNanos(ManagementFactory.getRuntimeMXBean().getUptime());
+        subscribeToGarbageCollections();
+        this.meter = Thread.ofPlatform()
+                .name("hiccup-meter")
+                .daemon()
+                .start(this::run);
+    }
+
+    public void addListener(Consumer<Attribution> listener) {
+        listeners.add(Objects.requireNonNull(listener, "Listener cannot be null"));
+    }
+
+    public void time(String section, Runnable task) {
+        long start = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            finish(section, start);
+        }
+    }
+
+    public <T> T time(String section, Supplier<T> task) {
+        long start = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            finish(section, start);
+        }
+    }
+
+    /**
+     * Pauses known so far that overlap {@code [startNanos, endNanos]}. GC
+     * notifications for the last ~100 ms may not have arrived yet.
+     */
+    public Attribution attribute(String section, long startNanos, long endNanos) {
+        List<Pause> overlapping = new ArrayList<>();
+        synchronized (pauses) {
+            for (Pause pause : pauses) {
+                if (pause.startNanos() - endNanos < 0 && startNanos - pause.endNanos() < 0) {
+                    overlapping.add(pause);
+                }
+            }
+        }
+        overlapping.sort(Comparator.comparingLong(Pause::startNanos));
+        // Union of the overlapping pauses, clipped to the section
+        long pausedNanos = 0;
+        long coveredUntil = startNanos;
+        for (Pause pause : overlapping) {
+            long from = Math.max(pause.startNanos(), coveredUntil);
+            long to = Math.min(pause.endNanos(), endNanos);
+            if (to - from > 0) {
+                pausedNanos += to - from;
+                coveredUntil = to;
+            }
+        }
+        return new Attribution(section, endNanos - startNanos, pausedNanos, overlapping);
+    }
+
+    /** Wake-up delays of the hiccup meter: the JVM's stall distribution. */
+    public LatencyRecorder.Snapshot hiccups() {
+        return hiccups.cumulativeSnapshot();
+    }
+
+    /** Slow sections recorded but not attributed: too many pending, or closed. */
+    public long droppedSections() {
+        return droppedSections.sum();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(meter);
+        unsubscribers.forEach(Runnable::run);
+        while (slowSections.poll() != null) {
+            pendingSections.decrementAndGet();
+            droppedSections.increment();
+        }
+    }
+
+    private void finish(String section, long startNanos) {
+        long end = System.nanoTime();
+        sections.record(end - startNanos);
+        if (end - startNanos >= slowThresholdNanos) {
+            // Only the meter drains the queue, so nothing may wait once it has stopped
+            if (!running) {
+                droppedSections.increment();
+                return;
+            }
+            if (pendingSections.incrementAndGet() > MAX_PENDING_SECTIONS) {
+                pendingSections.decrementAndGet();
+                droppedSections.increment();
+                return;
+            }
+            slowSections.add(new PendingSection(section, startNanos, end));
+        }
+    }
+
+    // --- Hiccup meter ---
+
+    private void run() {
+        long previous = System.nanoTime();
+        while (running) {
+            LockSupport.parkNanos(this, resolutionNanos);
+            long now = System.nanoTime();
+            long hiccupNanos = now - previous - resolutionNanos;
+            hiccups.record(hiccupNanos);
+            if (hiccupNanos >= resolutionNanos) {
+                addPause(new Pause(Pause.Source.HICCUP, "thread stalled (safepoint or no CPU)", previous + resolutionNanos, now));
+            }
+            previous = now;
+            reportSlowSections(now);
+        }
+    }
+
+    private void reportSlowSections(long now) {
+        PendingSection pending;
+        while ((pending = slowSections.peek()) != null && now - pending.endNanos() >= ATTRIBUTION_DELAY_NANOS) {
+            slowSections.poll();
+            pendingSections.decrementAndGet();
+            Attribution attribution = attribute(pending.section(), pending.startNanos(), pending.endNanos());
+            for (Consumer<Attribution> listener : listeners) {
+                // A throwing listener must not end the meter
+                try {
+                    listener.accept(attribution);
+                } catch (RuntimeException e) {
+                    logger.warn("Pause attribution listener failed on {}", attribution, e);
+                }
+            }
+        }
+    }
+
+    // --- GC notifications ---
+
+    private void subscribeToGarbageCollections() {
+        NotificationListener listener = (notification, handback) -> onNotification(notification);
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(listener, null, null);
+                unsubscribers.add(() -> {
+                    try {
+                        emitter.removeNotificationListener(listener);
+                    } catch (javax.management.ListenerNotFoundException e) {
+                        // Already removed
+                    }
+                });
+            }
+        }
+    }
+
+    private void onNotification(Notification notification) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        String name = info.getGcName();
+        if (name.contains("Concurrent") || name.contains("Cycles")) {
+            return; // application threads were running
+        }
+        long start = jvmStartNanos + TimeUnit.MILLISECONDS.toNanos(info.getGcInfo().getStartTime());
+        // GC times are whole milliseconds; count a sub-millisecond pause as one
+        long end = Math.max(start + TimeUnit.MILLISECONDS.toNanos(1),
+                jvmStartNanos + TimeUnit.MILLISECONDS.toNanos(info.getGcInfo().getEndTime()));
+        addPause(new Pause(Pause.Source.GC, name + ": " + info.getGcCause(), start, end));
+    }
+
+    private void addPause(Pause pause) {
+        synchronized (pauses) {
+            if (pauses.size() == HISTORY) {
+                pauses.removeFirst();
+            }
+            pauses.addLast(pause);
+        }
+    }
+
+    private record PendingSection(String section, long startNanos, long endNanos) {
+    }
+
+    /**
+     * A period, on the {@code nanoTime} scale, during which application
+     * threads were (likely) stopped.
+     */
+    public record Pause(Source source, String cause, long startNanos, long endNanos) {
+
+        public enum Source {
+            GC,
+            HICCUP
+        }
+
+        public Duration duration() {
+            return Duration.ofNanos(endNanos - startNanos);
+        }
+    }
+
+    /**
+     * How much of one timed section was spent in JVM pauses.
+     */
+    public record Attribution(String section, long elapsedNanos, long pausedNanos, List<Pause> pauses) {
+
+        public Attribution {
+            pauses = List.copyOf(pauses);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(String.format("%s took %.1f ms, of which %.1f ms was JVM pause",
+                    section, elapsedNanos / 1e6, pausedNanos / 1e6));
+            for (Pause pause : pauses) {
+                if (pause.source() == Pause.Source.GC) {
+                    text.append(String.format(" [%s, %d ms]", pause.cause(), pause.duration().toMillis()));
+                }
+            }
+            return text.toString();
+        }
+    }
+}
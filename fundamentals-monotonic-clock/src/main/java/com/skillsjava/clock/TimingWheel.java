@@ -0,0 +1,335 @@
+package com.skillsjava.clock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed hierarchical timing wheel for large numbers of timeouts.
+ * <p>
+ * Time is cut into ticks measured with {@code System.nanoTime()} from the
+ * moment the wheel is created. Level 0 has one slot per tick; every level
+ * above has slots {@code slotsPerLevel} times wider, like the digits of the
+ * tick number. A timeout goes into the lowest level where its deadline tick
+ * and the current tick share all higher digits, and moves down a level each
+ * time the wheel reaches its slot, until it expires from level 0. Scheduling
+ * and cancelling are O(1), however many timeouts are pending; a
+ * {@code ScheduledThreadPoolExecutor} pays O(log n) on its heap for both.
+ * <p>
+ * Only the single worker thread touches the slots. {@link #schedule} and
+ * {@link Timeout#cancel()} hand their work over through lock-free queues
+ * that the worker drains every tick, and a cancelled timeout is unlinked
+ * from its slot right away, so memory tracks the live timeouts.
+ * {@code maxPendingTimeouts} bounds that memory: beyond it
+ * {@code schedule} is rejected instead of queueing without limit.
+ * <p>
+ * Callbacks run on the given executor (by default one virtual thread per
+ * callback), never on the worker, so a slow callback cannot delay other
+ * timeouts. A timeout fires at the first tick at or after its deadline: up
+ * to one tick late, plus scheduling delay of the worker.
+ */
+public final class TimingWheel implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimingWheel.class);
+    private static final Duration DEFAULT_TICK = Duration.ofMillis(1);
+    private static final int DEFAULT_SLOTS_PER_LEVEL = 512;
+    private static final Duration MAX_DELAY = Duration.ofNanos(Long.MAX_VALUE);
+
+    private final long tickNanos;
+    private final long startNanos;
+    private final int slotBits;
+    private final int slotMask;
+    /** {@code [level][slot]}: sentinel head of a circular doubly-linked list. */
+    private final Timeout[][] slots;
+    private final long maxPendingTimeouts;
+    private final AtomicLong pendingTimeouts = new AtomicLong();
+    private final LongAdder failedHandOffs = new LongAdder();
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private volatile boolean running = true;
+    /** Worker only: the next tick to expire. */
+    private long nextTick = 1;
+
+    /**
+     * One-millisecond ticks, 512 slots per level, no limit on pending
+     * timeouts and a virtual thread per callback.
+     */
+    public TimingWheel() {
+        this(DEFAULT_TICK, DEFAULT_SLOTS_PER_LEVEL, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * @param tick               resolution; timeouts fire up to one tick late
+     * @param slotsPerLevel      power of two; more slots mean fewer cascades
+     *                           and more memory per level
+     * @param maxPendingTimeouts schedules beyond this are rejected
+     * @param executor           runs the callbacks; {@code null} for one
+     *                           virtual thread per callback. If it rejects
+     *                           a callback (a bounded pool that is full or
+     *                           shut down) or throws otherwise, that timeout
+     *                           is dropped, logged and counted in
+     *                           {@link #failedHandOffs()}; the wheel keeps
+     *                           running
+     */
+    public TimingWheel(Duration tick, int slotsPerLevel, long maxPendingTimeouts, Executor executor) {
+        Objects.requireNonNull(tick, "Tick cannot be null");
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        if (slotsPerLevel < 2 || Integer.bitCount(slotsPerLevel) != 1) {
+            throw new IllegalArgumentException("Slots per level must be a power of two of at least 2");
+        }
+        if (maxPendingTimeouts < 1) {
+            throw new IllegalArgumentException("Max pending timeouts must be positive");
+        }
+        this.tickNanos = tick.toNanos();
+        this.slotBits = Integer.numberOfTrailingZeros(slotsPerLevel);
+        this.slotMask = slotsPerLevel - 1;
+        this.maxPendingTimeouts = maxPendingTimeouts;
+        // Enough levels that every tick number up to 2^63 has a slot
+        int levels = (Long.SIZE - 1 + slotBits - 1) / slotBits;
+        this.slots = new Timeout[levels][slotsPerLevel];
+        for (Timeout[] level : slots) {
+            for (int i = 0; i < slotsPerLevel; i++) {
+                level[i] = Timeout.sentinel();
+            }
+        }
+        this.ownedExecutor = executor == null ? Executors.newVirtualThreadPerTaskExecutor() : null;
+        this.executor = executor == null ? ownedExecutor : executor;
+        this.startNanos = System.nanoTime();
+        this.worker = Thread.ofPlatform()
+                .name("timing-wheel")
+                .daemon()
+                .start(this::run);
+    }
+
+    /**
+     * Runs {@code task} on the executor once {@code delay} has passed. A
+     * negative delay counts as zero; a delay too long to represent in
+     * nanoseconds from the wheel's start never fires.
+     *
+     * @throws RejectedExecutionException if the wheel is closed or already
+     *                                    holds {@code maxPendingTimeouts}
+     */
+    public Timeout schedule(Runnable task, Duration delay) {
+        Objects.requireNonNull(task, "Task cannot be null");
+        Objects.requireNonNull(delay, "Delay cannot be null");
+        if (!running) {
+            throw new RejectedExecutionException("Timing wheel is closed");
+        }
+        long delayNanos = delay.isNegative() ? 0 : delay.compareTo(MAX_DELAY) >= 0 ? Long.MAX_VALUE : delay.toNanos();
+        long elapsedNanos = System.nanoTime() - startNanos;
+        // Saturate, as ScheduledThreadPoolExecutor does: a wrapped deadline would lie in the past and fire at once
+        long deadlineNanos = delayNanos > Long.MAX_VALUE - elapsedNanos ? Long.MAX_VALUE : elapsedNanos + delayNanos;
+        if (pendingTimeouts.incrementAndGet() > maxPendingTimeouts) {
+            pendingTimeouts.decrementAndGet();
+            throw new RejectedExecutionException("Too many pending timeouts: " + maxPendingTimeouts);
+        }
+        Timeout timeout = new Timeout(this, task, deadlineNanos);
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    public long pendingTimeouts() {
+        return pendingTimeouts.get();
+    }
+
+    /**
+     * Expired timeouts whose callback the executor refused to take.
+     */
+    public long failedHandOffs() {
+        return failedHandOffs.sum();
+    }
+
+    /**
+     * Stops the worker. Pending timeouts never fire; callbacks already handed
+     * to the default executor still run.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(worker);
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    // --- Worker ---
+
+    private void run() {
+        while (running) {
+            long tickDeadline = startNanos + nextTick * tickNanos;
+            long wait = tickDeadline - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue;
+            }
+            drainCancelled();
+            drainScheduled();
+            expire(nextTick);
+            nextTick++;
+        }
+    }
+
+    private void drainScheduled() {
+        Timeout timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            if (timeout.state == Timeout.PENDING) {
+                // Round up, and never into a tick that has already expired
+                long ticks = Math.ceilDiv(timeout.deadlineNanos, tickNanos);
+                timeout.deadlineTick = Math.max(ticks, nextTick);
+                place(timeout, nextTick);
+            }
+        }
+    }
+
+    private void drainCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.next != null) {
+                timeout.unlink();
+            }
+        }
+    }
+
+    /**
+     * Cascades the higher-level slots that start at {@code tick}, top level
+     * first, then runs everything in the level-0 slot of {@code tick}.
+     */
+    private void expire(long tick) {
+        for (int level = slots.length - 1; level > 0; level--) {
+            if ((tick & (1L << slotBits * level) - 1) == 0) {
+                Timeout head = slots[level][(int) (tick >>> slotBits * level) & slotMask];
+                while (head.next != head) {
+                    Timeout timeout = head.next;
+                    timeout.unlink();
+                    place(timeout, tick);
+                }
+            }
+        }
+        Timeout head = slots[0][(int) tick & slotMask];
+        while (head.next != head) {
+            Timeout timeout = head.next;
+            timeout.unlink();
+            if (timeout.expire()) {
+                pendingTimeouts.decrementAndGet();
+                handOff(timeout.task);
+            }
+        }
+    }
+
+    /**
+     * Passes a callback to the executor. A failure must not escape: it would
+     * end the worker, and no timeout would ever fire again.
+     */
+    private void handOff(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RuntimeException e) {
+            failedHandOffs.increment();
+            logger.warn("Timeout callback could not be handed to the executor", e);
+        }
+    }
+
+    /**
+     * Puts a timeout in the lowest level whose higher digits match {@code tick}.
+     */
+    private void place(Timeout timeout, long tick) {
+        int level = 0;
+        while (level < slots.length - 1
+                && (timeout.deadlineTick >>> slotBits * (level + 1)) != (tick >>> slotBits * (level + 1))) {
+            level++;
+        }
+        int slot = (int) (timeout.deadlineTick >>> slotBits * level) & slotMask;
+        timeout.linkBefore(slots[level][slot]);
+    }
+
+    /**
+     * Handle to one scheduled task.
+     */
+    public static final class Timeout {
+
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final TimingWheel wheel;
+        private final Runnable task;
+        /** Nanoseconds from the wheel's start, saturated at {@code Long.MAX_VALUE}. */
+        private final long deadlineNanos;
+        private volatile int state;
+        /** Worker only. */
+        private long deadlineTick;
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(TimingWheel wheel, Runnable task, long deadlineNanos) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        private static Timeout sentinel() {
+            Timeout head = new Timeout(null, null, 0);
+            head.previous = head;
+            head.next = head;
+            return head;
+        }
+
+        /**
+         * @return {@code true} if this call stopped the task from running;
+         *         {@code false} if it had already run or been cancelled
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+                return false;
+            }
+            wheel.pendingTimeouts.decrementAndGet();
+            wheel.cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        private boolean expire() {
+            return STATE.compareAndSet(this, PENDING, EXPIRED);
+        }
+
+        private void linkBefore(Timeout head) {
+            previous = head.previous;
+            next = head;
+            head.previous.next = this;
+            head.previous = this;
+        }
+
+        private void unlink() {
+            previous.next = next;
+            next.previous = previous;
+            previous = null;
+            next = null;
+        }
+    }
+}
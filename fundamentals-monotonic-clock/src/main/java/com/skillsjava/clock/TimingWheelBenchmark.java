@@ -0,0 +1,113 @@
+package com.skillsjava.clock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark: {@link TimingWheel} vs {@code ScheduledThreadPoolExecutor} for timeouts.
+ * <p>
+ * The typical timeout workload: schedule many timeouts with delays of a few
+ * seconds and cancel most of them again (the response arrived in time).
+ * Reports the cost of a schedule and a cancel with a large number of timeouts
+ * pending, then how late a batch of short timeouts fires, recorded with
+ * {@link LatencyRecorder}. A plain {@code nanoTime} harness.
+ * Arguments (all optional): {@code pendingTimeouts}.
+ */
+public final class TimingWheelBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimingWheelBenchmark.class);
+    private static final int FIRING_TIMEOUTS = 10_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int pending = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        logger.info("=== Timeouts: schedule and cancel with {} pending ===", pending);
+        for (int round = 0; round < 2; round++) { // the first round warms up
+            try (TimingWheel wheel = new TimingWheel()) {
+                scheduleAndCancel("TimingWheel", pending,
+                        delayNanos -> wheel.schedule(TimingWheelBenchmark::noop, Duration.ofNanos(delayNanos)),
+                        timeout -> ((TimingWheel.Timeout) timeout).cancel());
+            }
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+            // Without this, cancelled tasks stay in the heap until their delay passes
+            executor.setRemoveOnCancelPolicy(true);
+            scheduleAndCancel("ScheduledThreadPoolExecutor", pending,
+                    delayNanos -> executor.schedule(TimingWheelBenchmark::noop, delayNanos, TimeUnit.NANOSECONDS),
+                    future -> ((ScheduledFuture<?>) future).cancel(false));
+            executor.shutdownNow();
+        }
+
+        logger.info("=== Firing lateness: {} timeouts of 20-70 ms ===", FIRING_TIMEOUTS);
+        for (int round = 0; round < 2; round++) { // the first round warms up, virtual threads included
+            boolean report = round == 1;
+            try (TimingWheel wheel = new TimingWheel()) {
+                firingLateness("TimingWheel (1 ms tick)", report, (task, delayNanos) ->
+                        wheel.schedule(task, Duration.ofNanos(delayNanos)));
+            }
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+            firingLateness("ScheduledThreadPoolExecutor", report, (task, delayNanos) ->
+                    executor.schedule(task, delayNanos, TimeUnit.NANOSECONDS));
+            executor.shutdownNow();
+        }
+    }
+
+    private static void scheduleAndCancel(String label, int pending, Scheduler scheduler, Canceller canceller) {
+        Object[] timeouts = new Object[pending];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long start = System.nanoTime();
+        for (int i = 0; i < pending; i++) {
+            timeouts[i] = scheduler.schedule(random.nextLong(5_000_000_000L, 30_000_000_000L));
+        }
+        long scheduled = System.nanoTime();
+        for (int i = 0; i < pending; i++) {
+            canceller.cancel(timeouts[i]);
+        }
+        long cancelled = System.nanoTime();
+        logger.info(String.format("%-28s schedule %7.1f ns/op  cancel %7.1f ns/op",
+                label, (double) (scheduled - start) / pending, (double) (cancelled - scheduled) / pending));
+    }
+
+    private static void firingLateness(String label, boolean report, TaskScheduler scheduler)
+            throws InterruptedException {
+        LatencyRecorder lateness = new LatencyRecorder();
+        CountDownLatch fired = new CountDownLatch(FIRING_TIMEOUTS);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < FIRING_TIMEOUTS; i++) {
+            long delayNanos = random.nextLong(20_000_000, 70_000_000);
+            long deadline = System.nanoTime() + delayNanos;
+            scheduler.schedule(() -> {
+                lateness.recordSince(deadline);
+                fired.countDown();
+            }, delayNanos);
+        }
+        fired.await();
+        if (report) {
+            logger.info("{} late by: {}", label, lateness.cumulativeSnapshot());
+        }
+    }
+
+    private static void noop() {
+    }
+
+    @FunctionalInterface
+    private interface Scheduler {
+        Object schedule(long delayNanos);
+    }
+
+    @FunctionalInterface
+    private interface Canceller {
+        void cancel(Object timeout);
+    }
+
+    @FunctionalInterface
+    private interface TaskScheduler {
+        void schedule(Runnable task, long delayNanos);
+    }
+}
@@ -0,0 +1,173 @@
+package com.skillsjava.userservice;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * DECORATOR: Bloom filter over emails in front of any {@link UserRepository}.
+ * <p>
+ * {@code findByEmail} for an email the filter has never seen returns empty
+ * without touching the delegate, which makes lookups of unknown emails
+ * (credential stuffing, typos) almost free even when the store is remote or
+ * on disk. Positive answers are only "maybe" and always go to the delegate.
+ * <p>
+ * The bit array is an {@link AtomicLongArray} updated with CAS, so lookups
+ * and inserts are lock-free. Writes set the bits <em>before</em> reaching the
+ * delegate: a concurrent reader may see a false positive, never a false
+ * negative. Emails already stored before wrapping must be loaded with
+ * {@link #seed(Stream)}.
+ */
+final class BloomFilterUserRepository implements UserRepository {
+    private final UserRepository delegate;
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    private final LongAdder insertions = new LongAdder();
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder definitelyAbsent = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    /**
+     * Filter counters. {@code observedFalsePositiveRate} is measured on real
+     * traffic: lookups the filter let through that the delegate then missed.
+     */
+    record Stats(long bits, int hashFunctions, long insertions, double expectedFalsePositiveRate,
+            long lookups, long definitelyAbsent, long falsePositives) {
+        public double observedFalsePositiveRate() {
+            long negatives = definitelyAbsent + falsePositives;
+            return negatives == 0 ? 0 : (double) falsePositives / negatives;
+        }
+    }
+
+    /**
+     * @param expectedUsers     sizing target; beyond it the false-positive rate grows
+     * @param falsePositiveRate target rate at {@code expectedUsers}, e.g. 0.01
+     */
+    public BloomFilterUserRepository(UserRepository delegate, long expectedUsers, double falsePositiveRate) {
+        this.delegate = Objects.requireNonNull(delegate, "Delegate repository cannot be null");
+        if (expectedUsers < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("expectedUsers must be positive and 0 < falsePositiveRate < 1");
+        }
+        double ln2 = Math.log(2);
+        long optimalBits = (long) Math.ceil(-expectedUsers * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + 63) >>> 6);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words << 6;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedUsers * ln2));
+    }
+
+    /**
+     * Registers emails that were already in the delegate before it was wrapped.
+     */
+    public void seed(Stream<String> existingEmails) {
+        existingEmails.map(EmailKey::of).forEach(this::add);
+    }
+
+    @Override
+    public void save(User user) {
+        add(EmailKey.of(user.email()));
+        delegate.save(user);
+    }
+
+    @Override
+    public boolean saveIfEmailAbsent(User user) {
+        add(EmailKey.of(user.email()));
+        return delegate.saveIfEmailAbsent(user);
+    }
+
+    @Override
+    public BitSet saveAll(List<User> users) {
+        users.forEach(user -> add(EmailKey.of(user.email())));
+        return delegate.saveAll(users);
+    }
+
+    @Override
+    public Optional<User> findByEmail(EmailKey email) {
+        lookups.increment();
+        if (!mightContain(email)) {
+            definitelyAbsent.increment();
+            return Optional.empty();
+        }
+        Optional<User> user = delegate.findByEmail(email);
+        if (user.isEmpty()) {
+            falsePositives.increment();
+        }
+        return user;
+    }
+
+    @Override
+    public Optional<User> findById(UUID id) {
+        return delegate.findById(id);
+    }
+
+    public Stats stats() {
+        long inserted = insertions.sum();
+        double expected = Math.pow(1 - Math.exp(-(double) hashFunctions * inserted / bitCount), hashFunctions);
+        return new Stats(bitCount, hashFunctions, inserted, expected, lookups.sum(), definitelyAbsent.sum(),
+                falsePositives.sum());
+    }
+
+    // --- Filter ---
+
+    boolean mightContain(EmailKey email) {
+        long h1 = hash(email, 0x9E3779B97F4A7C15L);
+        long h2 = hash(email, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sets the email's bits. Only an add that sets at least one new bit is
+     * counted, so duplicates and retried saves do not inflate the
+     * expected false-positive rate.
+     */
+    private void add(EmailKey email) {
+        long h1 = hash(email, 0x9E3779B97F4A7C15L);
+        long h2 = hash(email, 0xC2B2AE3D27D4EB4FL) | 1;
+        boolean changed = false;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0) {
+                if (bits.weakCompareAndSetVolatile(word, current, current | mask)) {
+                    changed = true;
+                    break;
+                }
+                current = bits.get(word);
+            }
+        }
+        if (changed) {
+            insertions.increment();
+        }
+    }
+
+    /**
+     * Seeded 64-bit hash over the UTF-16 chars; no allocation.
+     * Two seeds give the independent hashes for double hashing.
+     */
+    private static long hash(CharSequence value, long seed) {
+        long h = seed ^ value.length();
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
@@ -0,0 +1,223 @@
+package com.skillsjava.userservice;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * INFRASTRUCTURE: Size- and TTL-bounded cache with single-flight loading.
+ * <p>
+ * Keys are spread over lock-striped segments, each an access-ordered
+ * {@link LinkedHashMap}, so eviction is LRU per segment and unrelated keys do
+ * not contend. Expiry uses {@link System#nanoTime()}, so wall-clock jumps
+ * never expire (or resurrect) entries. Concurrent misses on the same key share
+ * one loader call through a map of in-flight futures.
+ */
+final class BoundedCache<K, V> {
+    private final Segment<K, V>[] segments;
+    private final long ttlNanos;
+    private final ConcurrentMap<K, CompletableFuture<Optional<V>>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    record Stats(long hits, long misses, long coalescedLoads, long evictions, long expirations) {
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAtNanos) {
+    }
+
+    public BoundedCache(int maximumSize, Duration timeToLive) {
+        if (maximumSize < 1 || timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("maximumSize and timeToLive must be positive");
+        }
+        int count = Math.min(Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4),
+                Integer.highestOneBit(maximumSize));
+        this.segments = newSegments(count);
+        int perSegment = (maximumSize + count - 1) / count;
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(perSegment, evictions);
+        }
+        this.ttlNanos = timeToLive.toNanos();
+    }
+
+    /**
+     * Returns the cached value, or runs the loader once for all concurrent
+     * callers of the same key. Empty results are not cached.
+     */
+    public Optional<V> get(K key, Function<? super K, Optional<V>> loader) {
+        Optional<V> cached = lookup(key);
+        if (cached.isPresent()) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        CompletableFuture<Optional<V>> mine = new CompletableFuture<>();
+        CompletableFuture<Optional<V>> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            return join(running);
+        }
+        try {
+            // A load may have finished between the lookup and our registration
+            Optional<V> value = lookup(key);
+            if (value.isEmpty()) {
+                value = loader.apply(key);
+                value.ifPresent(v -> putIfAbsent(key, v));
+            }
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public Optional<V> getIfPresent(K key) {
+        return lookup(key);
+    }
+
+    public void put(K key, V value) {
+        segmentFor(key).put(key, new Entry<>(Objects.requireNonNull(value), System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Used by loaders: a value written through by a concurrent save wins over
+     * the (possibly older) value the loader read.
+     */
+    public void putIfAbsent(K key, V value) {
+        segmentFor(key).putIfAbsent(key, new Entry<>(Objects.requireNonNull(value), System.nanoTime() + ttlNanos));
+    }
+
+    public void invalidate(K key) {
+        segmentFor(key).remove(key);
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), coalesced.sum(), evictions.sum(), expirations.sum());
+    }
+
+    private Optional<V> lookup(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        Entry<V> entry = segment.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (System.nanoTime() - entry.expiresAtNanos() >= 0) {
+            if (segment.remove(key, entry)) {
+                expirations.increment();
+            }
+            return Optional.empty();
+        }
+        return Optional.of(entry.value());
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return segments[h & (segments.length - 1)];
+    }
+
+    private static <V> Optional<V> join(CompletableFuture<Optional<V>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    /** Java cannot create a generic array; every element is a {@code Segment<K, V>}. */
+    @SuppressWarnings("unchecked")
+    private static <K, V> Segment<K, V>[] newSegments(int count) {
+        return (Segment<K, V>[]) new Segment<?, ?>[count];
+    }
+
+    /**
+     * One lock-protected LRU map. Even reads take the lock because an
+     * access-ordered {@code LinkedHashMap} reorders itself on {@code get}.
+     */
+    private static final class Segment<K, V> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<K, Entry<V>> map;
+
+        Segment(int capacity, LongAdder evictions) {
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        Entry<V> get(K key) {
+            lock.lock();
+            try {
+                return map.get(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void put(K key, Entry<V> entry) {
+            lock.lock();
+            try {
+                map.put(key, entry);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void putIfAbsent(K key, Entry<V> entry) {
+            lock.lock();
+            try {
+                map.putIfAbsent(key, entry);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(K key) {
+            lock.lock();
+            try {
+                map.remove(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean remove(K key, Entry<V> entry) {
+            lock.lock();
+            try {
+                return map.remove(key, entry);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.skillsjava.userservice;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DECORATOR: Runs an expensive {@link PasswordHasher} on a dedicated pool.
+ * <p>
+ * Request threads (often virtual) only wait for the result; the CPU work
+ * happens on one platform thread per core. The queue in front of the pool is
+ * bounded: once it is full, new hashing work is refused with
+ * {@link UserServiceBusyException} instead of queueing without limit, so a
+ * login burst degrades into fast rejections rather than a saturated box.
+ */
+final class BoundedPasswordHasher implements PasswordHasher, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(BoundedPasswordHasher.class);
+
+    private final PasswordHasher delegate;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Point-in-time view of the hashing pool for dashboards and alerts.
+     */
+    record Metrics(int threads, int active, int queueDepth, int queueCapacity, long completed, long rejected) {
+    }
+
+    public BoundedPasswordHasher(PasswordHasher delegate) {
+        this(delegate, Runtime.getRuntime().availableProcessors(), 256);
+    }
+
+    public BoundedPasswordHasher(PasswordHasher delegate, int threads, int queueCapacity) {
+        this.delegate = Objects.requireNonNull(delegate, "Delegate hasher cannot be null");
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("threads and queueCapacity must be positive");
+        }
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), hashingThreads(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public char[] hash(char[] password) {
+        return await(() -> delegate.hash(password));
+    }
+
+    @Override
+    public boolean verify(char[] password, char[] storedHash) {
+        return await(() -> delegate.verify(password, storedHash));
+    }
+
+    public Metrics metrics() {
+        return new Metrics(executor.getPoolSize(), executor.getActiveCount(), executor.getQueue().size(),
+                executor.getQueue().size() + executor.getQueue().remainingCapacity(),
+                executor.getCompletedTaskCount(), rejected.get());
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> T await(Callable<T> work) {
+        Future<T> future;
+        try {
+            future = executor.submit(work);
+        } catch (RejectedExecutionException e) {
+            long total = rejected.incrementAndGet();
+            logger.warn("Password hashing queue full, rejecting request ({} rejected so far)", total);
+            throw new UserServiceBusyException("Too many concurrent authentication requests");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new UserServiceBusyException("Interrupted while hashing password");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static ThreadFactory hashingThreads() {
+        AtomicInteger sequence = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "password-hasher-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
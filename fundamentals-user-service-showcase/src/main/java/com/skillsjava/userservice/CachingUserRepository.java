@@ -0,0 +1,101 @@
+package com.skillsjava.userservice;
+
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * DECORATOR: Read-through, write-through cache in front of any {@link UserRepository}.
+ * <p>
+ * Users are cached by id and by email in two {@link BoundedCache}s (LRU, size
+ * and TTL bounded), so hot accounts are served from memory even when the
+ * delegate is remote or on disk. A load through one key also fills the other.
+ * Concurrent misses on the same key are coalesced into a single delegate call,
+ * so a login burst on one account costs one lookup, not one per request.
+ * <p>
+ * Writes go to the delegate first and only then into the caches. Misses are
+ * not cached: a freshly signed-up email is visible immediately. If the
+ * delegate is also written behind this decorator's back, readers may see the
+ * old user until the entry expires.
+ */
+final class CachingUserRepository implements UserRepository {
+    private final UserRepository delegate;
+    private final BoundedCache<UUID, User> byId;
+    private final BoundedCache<EmailKey, User> byEmail;
+
+    /**
+     * Hit, miss and eviction counters of both caches.
+     */
+    record Stats(BoundedCache.Stats byId, BoundedCache.Stats byEmail) {
+    }
+
+    /**
+     * @param maximumUsers entries kept per index before LRU eviction
+     * @param timeToLive   how long an entry is served without going back to the delegate
+     */
+    public CachingUserRepository(UserRepository delegate, int maximumUsers, Duration timeToLive) {
+        this.delegate = Objects.requireNonNull(delegate, "Delegate repository cannot be null");
+        Objects.requireNonNull(timeToLive, "Time to live cannot be null");
+        this.byId = new BoundedCache<>(maximumUsers, timeToLive);
+        this.byEmail = new BoundedCache<>(maximumUsers, timeToLive);
+    }
+
+    @Override
+    public void save(User user) {
+        delegate.save(user);
+        cache(user);
+    }
+
+    @Override
+    public boolean saveIfEmailAbsent(User user) {
+        if (!delegate.saveIfEmailAbsent(user)) {
+            return false;
+        }
+        cache(user);
+        return true;
+    }
+
+    @Override
+    public BitSet saveAll(List<User> users) {
+        BitSet stored = delegate.saveAll(users);
+        stored.stream().forEach(i -> cache(users.get(i)));
+        return stored;
+    }
+
+    @Override
+    public Optional<User> findByEmail(EmailKey email) {
+        // The cache keeps its keys: never a caller's lookup view
+        return byEmail.get(email.stored(), key -> {
+            Optional<User> user = delegate.findByEmail(key);
+            user.ifPresent(u -> byId.putIfAbsent(u.id(), u));
+            return user;
+        });
+    }
+
+    @Override
+    public Optional<User> findById(UUID id) {
+        return byId.get(id, key -> {
+            Optional<User> user = delegate.findById(key);
+            user.ifPresent(u -> byEmail.putIfAbsent(EmailKey.of(u.email()), u));
+            return user;
+        });
+    }
+
+    public Stats stats() {
+        return new Stats(byId.stats(), byEmail.stats());
+    }
+
+    private void cache(User user) {
+        // A save may move an id to a new email; drop the mapping for the old one
+        EmailKey email = EmailKey.of(user.email());
+        byId.getIfPresent(user.id())
+                .map(previous -> EmailKey.of(previous.email()))
+                .filter(previous -> !previous.equals(email))
+                .ifPresent(byEmail::invalidate);
+        byId.put(user.id(), user);
+        byEmail.put(email, user);
+    }
+}
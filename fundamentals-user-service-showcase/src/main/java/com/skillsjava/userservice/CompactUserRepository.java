@@ -0,0 +1,406 @@
+package com.skillsjava.userservice;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * INFRASTRUCTURE: Heap-compact repository for very large user counts.
+ * <p>
+ * A {@code HashMap<UUID, User>} pays for a boxed {@code UUID}, a {@code Node}
+ * and a {@code User} with two {@code String}s per entry. Here there are no
+ * per-user objects at all, only three flat arrays:
+ * <ul>
+ * <li>{@code arena}: every user as
+ * {@code [msb][lsb][nameLen][name][emailLen][email][hashLen][hash]}, the id as
+ * two 8-byte longs, lengths as 4-byte ints, text as UTF-8 and the hash as
+ * UTF-16 code units.</li>
+ * <li>{@code idTable}: open-addressing table of {@code [msb, lsb, offset]}
+ * triples. The two {@code long} halves of the UUIDv7 are stored inline, so a
+ * probe stays inside the table and a hit costs one more access into the
+ * arena.</li>
+ * <li>{@code emailTable}: open-addressing table of {@code [hash, offset]}
+ * pairs; the cached hash rejects most mismatches without touching the
+ * arena.</li>
+ * </ul>
+ * Both tables use linear probing and store {@code offset + 1}, so 0 means
+ * "empty slot". {@link User} objects are only materialized on lookup.
+ * <p>
+ * Writes are serialized by a write lock, lookups share a read lock.
+ * Overwritten users leave dead bytes in the arena; the arena is a single
+ * {@code byte[]} and therefore limited to 2 GB.
+ */
+final class CompactUserRepository implements UserRepository {
+    private static final int NOT_FOUND = -1;
+    private static final int MAX_LOAD_PERCENT = 50;
+    private static final int ID_STRIDE = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private byte[] arena;
+    private int arenaEnd;
+    private int size;
+
+    private long[] idTable;
+    private int[] emailTable;
+    private int mask;
+
+    public CompactUserRepository() {
+        this(1 << 10);
+    }
+
+    public CompactUserRepository(int expectedUsers) {
+        if (expectedUsers < 1) {
+            throw new IllegalArgumentException("expectedUsers must be positive");
+        }
+        this.arena = new byte[(int) Math.min(expectedUsers * 64L, Integer.MAX_VALUE - 8)];
+        allocateTables(tableSizeFor(expectedUsers));
+    }
+
+    @Override
+    public void save(User user) {
+        EmailKey email = EmailKey.of(user.email());
+        lock.writeLock().lock();
+        try {
+            upsert(user, email);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean saveIfEmailAbsent(User user) {
+        EmailKey email = EmailKey.of(user.email());
+        lock.writeLock().lock();
+        try {
+            if (findEmailOffset(email) != NOT_FOUND) {
+                return false;
+            }
+            upsert(user, email);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public BitSet saveAll(List<User> users) {
+        EmailKey[] emails = new EmailKey[users.size()];
+        for (int i = 0; i < emails.length; i++) {
+            emails[i] = EmailKey.of(users.get(i).email());
+        }
+        BitSet stored = new BitSet(emails.length);
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < emails.length; i++) {
+                if (findEmailOffset(emails[i]) == NOT_FOUND) {
+                    upsert(users.get(i), emails[i]);
+                    stored.set(i);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return stored;
+    }
+
+    @Override
+    public Optional<User> findByEmail(EmailKey email) {
+        lock.readLock().lock();
+        try {
+            int offset = findEmailOffset(email);
+            return offset == NOT_FOUND ? Optional.empty() : Optional.of(read(offset));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<User> findById(UUID id) {
+        lock.readLock().lock();
+        try {
+            int slot = findIdSlot(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            return slot == NOT_FOUND ? Optional.empty()
+                    : Optional.of(read((int) idTable[slot * ID_STRIDE + 2] - 1));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Arena ---
+
+    private void upsert(User user, EmailKey email) {
+        int slot = findIdSlot(user.id().getMostSignificantBits(), user.id().getLeastSignificantBits());
+        if (slot == NOT_FOUND) {
+            insertNew(user, email);
+            return;
+        }
+        // Overwrite: append the new version and repoint both indexes
+        removeEmail((int) idTable[slot * ID_STRIDE + 2] - 1);
+        int offset = append(user, email);
+        idTable[slot * ID_STRIDE + 2] = offset + 1;
+        putEmail(offset, email);
+    }
+
+    private void insertNew(User user, EmailKey email) {
+        if ((size + 1) * 100L > (mask + 1L) * MAX_LOAD_PERCENT) {
+            rehash((mask + 1) << 1);
+        }
+        int offset = append(user, email);
+        insertId(user.id().getMostSignificantBits(), user.id().getLeastSignificantBits(), offset);
+        putEmail(offset, email);
+        size++;
+    }
+
+    private int append(User user, EmailKey key) {
+        byte[] email = key.utf8();
+        byte[] name = user.name().getBytes(StandardCharsets.UTF_8);
+        char[] hash = user.passwordHash();
+        ensureArena(28L + name.length + email.length + hash.length * 2L);
+
+        int offset = arenaEnd;
+        putLong(offset, user.id().getMostSignificantBits());
+        putLong(offset + 8, user.id().getLeastSignificantBits());
+        int pos = putBytes(offset + 16, name);
+        pos = putBytes(pos, email);
+        putInt(pos, hash.length);
+        pos += 4;
+        for (char c : hash) {
+            arena[pos++] = (byte) (c >>> 8);
+            arena[pos++] = (byte) c;
+        }
+        arenaEnd = pos;
+        return offset;
+    }
+
+    private User read(int offset) {
+        UUID id = new UUID(getLong(offset), getLong(offset + 8));
+        int pos = offset + 16;
+        int nameLen = getInt(pos);
+        String name = new String(arena, pos + 4, nameLen, StandardCharsets.UTF_8);
+        pos += 4 + nameLen;
+        int emailLen = getInt(pos);
+        String email = new String(arena, pos + 4, emailLen, StandardCharsets.UTF_8);
+        pos += 4 + emailLen;
+        char[] hash = new char[getInt(pos)];
+        pos += 4;
+        for (int i = 0; i < hash.length; i++, pos += 2) {
+            hash[i] = (char) (((arena[pos] & 0xFF) << 8) | (arena[pos + 1] & 0xFF));
+        }
+        return new User(id, name, email, hash);
+    }
+
+    /** Position of the email length prefix of the user stored at offset. */
+    private int emailPosition(int offset) {
+        int pos = offset + 16;
+        return pos + 4 + getInt(pos);
+    }
+
+    private void ensureArena(long needed) {
+        long required = arenaEnd + needed;
+        if (required > Integer.MAX_VALUE - 8) {
+            throw new UserServiceException("CompactUserRepository arena is full");
+        }
+        if (required > arena.length) {
+            long grown = Math.max(required, arena.length + ((long) arena.length >> 1));
+            arena = Arrays.copyOf(arena, (int) Math.min(grown, Integer.MAX_VALUE - 8));
+        }
+    }
+
+    private int putBytes(int pos, byte[] bytes) {
+        putInt(pos, bytes.length);
+        System.arraycopy(bytes, 0, arena, pos + 4, bytes.length);
+        return pos + 4 + bytes.length;
+    }
+
+    private void putLong(int pos, long value) {
+        putInt(pos, (int) (value >>> 32));
+        putInt(pos + 4, (int) value);
+    }
+
+    private long getLong(int pos) {
+        return ((long) getInt(pos) << 32) | (getInt(pos + 4) & 0xFFFFFFFFL);
+    }
+
+    private void putInt(int pos, int value) {
+        arena[pos] = (byte) (value >>> 24);
+        arena[pos + 1] = (byte) (value >>> 16);
+        arena[pos + 2] = (byte) (value >>> 8);
+        arena[pos + 3] = (byte) value;
+    }
+
+    private int getInt(int pos) {
+        return ((arena[pos] & 0xFF) << 24) | ((arena[pos + 1] & 0xFF) << 16)
+                | ((arena[pos + 2] & 0xFF) << 8) | (arena[pos + 3] & 0xFF);
+    }
+
+    // --- Id index ---
+
+    private int findIdSlot(long msb, long lsb) {
+        for (int slot = hash(msb, lsb) & mask;; slot = (slot + 1) & mask) {
+            int base = slot * ID_STRIDE;
+            if (idTable[base + 2] == 0) {
+                return NOT_FOUND;
+            }
+            if (idTable[base] == msb && idTable[base + 1] == lsb) {
+                return slot;
+            }
+        }
+    }
+
+    private void insertId(long msb, long lsb, int offset) {
+        int slot = hash(msb, lsb) & mask;
+        while (idTable[slot * ID_STRIDE + 2] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        int base = slot * ID_STRIDE;
+        idTable[base] = msb;
+        idTable[base + 1] = lsb;
+        idTable[base + 2] = offset + 1;
+    }
+
+    // --- Email index ---
+
+    private int findEmailOffset(EmailKey email) {
+        int hash = mix(email.hashCode());
+        for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+            int entry = emailTable[(slot << 1) + 1];
+            if (entry == 0) {
+                return NOT_FOUND;
+            }
+            if (emailTable[slot << 1] == hash && emailEquals(entry - 1, email)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * Points the email at the user stored at offset, replacing any previous
+     * owner (same semantics as {@code HashMap.put}).
+     */
+    private void putEmail(int offset, EmailKey email) {
+        int hash = mix(email.hashCode());
+        int slot = hash & mask;
+        for (int entry; (entry = emailTable[(slot << 1) + 1]) != 0; slot = (slot + 1) & mask) {
+            if (emailTable[slot << 1] == hash && emailEquals(entry - 1, email)) {
+                break;
+            }
+        }
+        emailTable[slot << 1] = hash;
+        emailTable[(slot << 1) + 1] = offset + 1;
+    }
+
+    /**
+     * Backward-shift deletion keeps probe chains intact without tombstones.
+     */
+    private void removeEmail(int offset) {
+        int pos = emailPosition(offset);
+        int slot = hash(arena, pos + 4, getInt(pos)) & mask;
+        while (emailTable[(slot << 1) + 1] != offset + 1) {
+            if (emailTable[(slot << 1) + 1] == 0) {
+                return; // Email was already taken over by another user
+            }
+            slot = (slot + 1) & mask;
+        }
+        int hole = slot;
+        for (int next = (hole + 1) & mask; emailTable[(next << 1) + 1] != 0; next = (next + 1) & mask) {
+            int home = emailTable[next << 1] & mask;
+            boolean movable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (movable) {
+                emailTable[hole << 1] = emailTable[next << 1];
+                emailTable[(hole << 1) + 1] = emailTable[(next << 1) + 1];
+                hole = next;
+            }
+        }
+        emailTable[hole << 1] = 0;
+        emailTable[(hole << 1) + 1] = 0;
+    }
+
+    /**
+     * Compares byte by byte against the key's canonical form, so a lookup
+     * view is never copied.
+     */
+    private boolean emailEquals(int offset, EmailKey email) {
+        int pos = emailPosition(offset);
+        int len = getInt(pos);
+        if (len != email.utf8Length()) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (arena[pos + 4 + i] != email.utf8At(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // --- Shared ---
+
+    private void allocateTables(int slots) {
+        idTable = new long[slots * ID_STRIDE];
+        emailTable = new int[slots * 2];
+        mask = slots - 1;
+    }
+
+    private void rehash(int newSlots) {
+        long[] oldIds = idTable;
+        int[] oldEmails = emailTable;
+        allocateTables(newSlots);
+        for (int base = 0; base < oldIds.length; base += ID_STRIDE) {
+            if (oldIds[base + 2] != 0) {
+                insertId(oldIds[base], oldIds[base + 1], (int) oldIds[base + 2] - 1);
+            }
+        }
+        for (int i = 0; i < oldEmails.length; i += 2) {
+            if (oldEmails[i + 1] != 0) {
+                int slot = oldEmails[i] & mask;
+                while (emailTable[(slot << 1) + 1] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                emailTable[slot << 1] = oldEmails[i];
+                emailTable[(slot << 1) + 1] = oldEmails[i + 1];
+            }
+        }
+    }
+
+    private static int tableSizeFor(int expected) {
+        long slots = Math.max(16, expected * 100L / MAX_LOAD_PERCENT + 1);
+        return (int) Math.min(1 << 29, Long.highestOneBit(slots - 1) << 1);
+    }
+
+    private static int hash(long msb, long lsb) {
+        return mix(msb * 0x9E3779B97F4A7C15L ^ lsb);
+    }
+
+    /**
+     * Same polynomial as {@link EmailKey#hashCode()}, over stored UTF-8 bytes.
+     */
+    private static int hash(byte[] bytes, int from, int length) {
+        int h = 1;
+        for (int i = from; i < from + length; i++) {
+            h = 31 * h + bytes[i];
+        }
+        return mix(h);
+    }
+
+    private static int mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
@@ -0,0 +1,58 @@
+package com.skillsjava.userservice;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * INFRASTRUCTURE: Thread-safe repository for concurrent sign-ups.
+ * <p>
+ * Both indexes are {@link ConcurrentHashMap}s: reads are lock-free and writes
+ * only lock the single bin they touch, so unrelated emails never contend.
+ * Email uniqueness is enforced by {@code putIfAbsent} on the email index,
+ * which is the single point of truth for "who owns this email".
+ */
+final class ConcurrentUserRepository implements UserRepository {
+    private final ConcurrentMap<UUID, User> usersById = new ConcurrentHashMap<>();
+    private final ConcurrentMap<EmailKey, User> usersByEmail = new ConcurrentHashMap<>();
+
+    @Override
+    public void save(User user) {
+        usersById.put(user.id(), user);
+        usersByEmail.put(EmailKey.of(user.email()), user);
+    }
+
+    @Override
+    public boolean saveIfEmailAbsent(User user) {
+        // Claim the email first; only the winner publishes the id entry.
+        if (usersByEmail.putIfAbsent(EmailKey.of(user.email()), user) != null) {
+            return false;
+        }
+        usersById.put(user.id(), user);
+        return true;
+    }
+
+    @Override
+    public BitSet saveAll(List<User> users) {
+        BitSet stored = new BitSet(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            if (saveIfEmailAbsent(users.get(i))) {
+                stored.set(i);
+            }
+        }
+        return stored;
+    }
+
+    @Override
+    public Optional<User> findByEmail(EmailKey email) {
+        return Optional.ofNullable(usersByEmail.get(email));
+    }
+
+    @Override
+    public Optional<User> findById(UUID id) {
+        return Optional.ofNullable(usersById.get(id));
+    }
+}
@@ -0,0 +1,343 @@
+package com.skillsjava.userservice;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * DOMAIN: Canonical form of an email address, used as the index key.
+ * <p>
+ * Surrounding whitespace is stripped and the address is lower-cased with
+ * {@link Locale#ROOT}, so {@code " Alice@Example.com"} and
+ * {@code "alice@example.com"} are the same key. There are two forms, which
+ * hash and compare alike:
+ * <ul>
+ * <li>{@link #of} keys own their canonical {@code String} and UTF-8 bytes,
+ * both built once in a single pass, and can be stored in indexes. An already
+ * canonical {@code String} is used as is.</li>
+ * <li>A {@link Lookup} is a reusable view over a caller's raw
+ * {@code CharSequence} or UTF-8 request buffer. Case and whitespace are
+ * folded on the fly while hashing and comparing, so probing an index with
+ * ASCII input allocates nothing. Other input falls back to an owned key.</li>
+ * </ul>
+ * The hash is computed once per key, as {@code h = 31 * h + b} over the
+ * canonical UTF-8 bytes starting from 1: the same value the byte-array
+ * indexes store for their emails. Components that keep a key they were
+ * given must keep {@link #stored()}, never the key itself.
+ */
+abstract sealed class EmailKey implements CharSequence {
+
+    public static EmailKey of(CharSequence email) {
+        Objects.requireNonNull(email, "Email cannot be null");
+        int start = strippedStart(email);
+        int end = strippedEnd(email, start);
+
+        int hash = 1;
+        byte[] folded = null;
+        for (int i = start; i < end; i++) {
+            char c = email.charAt(i);
+            if (c >= 0x80) {
+                return new Owned(email.subSequence(start, end).toString().toLowerCase(Locale.ROOT));
+            }
+            if (folded == null && c >= 'A' && c <= 'Z') {
+                folded = new byte[end - start];
+                for (int j = start; j < i; j++) {
+                    folded[j - start] = (byte) email.charAt(j);
+                }
+            }
+            byte b = (byte) toLowerAscii(c);
+            if (folded != null) {
+                folded[i - start] = b;
+            }
+            hash = 31 * hash + b;
+        }
+        if (folded != null) {
+            return new Owned(new String(folded, StandardCharsets.ISO_8859_1), folded, hash);
+        }
+        // Already canonical: substring(start, end) of a whole String returns the same instance
+        String value = email instanceof String s ? s.substring(start, end) : email.subSequence(start, end).toString();
+        return new Owned(value, value.getBytes(StandardCharsets.ISO_8859_1), hash);
+    }
+
+    /**
+     * Owned key from a UTF-8 request buffer.
+     */
+    public static EmailKey of(byte[] utf8, int offset, int length) {
+        return new Lookup().wrap(utf8, offset, length).stored();
+    }
+
+    /**
+     * The canonical address as a {@code String}; a {@link Lookup} builds it
+     * on every call.
+     */
+    public abstract String value();
+
+    /**
+     * Canonical UTF-8 bytes, built once for owned keys. They are shared and
+     * must not be modified.
+     */
+    abstract byte[] utf8();
+
+    abstract int utf8Length();
+
+    /**
+     * Byte {@code index} of the canonical UTF-8 form, so byte-array indexes
+     * can compare stored emails without copying the key.
+     */
+    abstract byte utf8At(int index);
+
+    /**
+     * A key that may be kept: this key if it is owned, otherwise an owned
+     * copy of the view's current content.
+     */
+    abstract EmailKey stored();
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return value().subSequence(start, end);
+    }
+
+    @Override
+    public abstract int hashCode();
+
+    @Override
+    public final boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof EmailKey key) || hashCode() != key.hashCode()) {
+            return false;
+        }
+        if (this instanceof Owned owned && key instanceof Owned otherOwned) {
+            return owned.value.equals(otherOwned.value);
+        }
+        int length = length();
+        if (key.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (charAt(i) != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return value();
+    }
+
+    private static int strippedStart(CharSequence email) {
+        int start = 0;
+        while (start < email.length() && Character.isWhitespace(email.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int strippedEnd(CharSequence email, int start) {
+        int end = email.length();
+        while (end > start && Character.isWhitespace(email.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    private static int toLowerAscii(int c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+    /**
+     * Same set as {@link Character#isWhitespace} restricted to ASCII, so both
+     * factories strip alike.
+     */
+    private static boolean isAsciiWhitespace(byte b) {
+        return b == ' ' || (b >= '\t' && b <= '\r') || (b >= 0x1C && b <= 0x1F);
+    }
+
+    /**
+     * Immutable key with its canonical {@code String} and UTF-8 bytes.
+     */
+    private static final class Owned extends EmailKey {
+        private final String value;
+        private final byte[] utf8;
+        private final int hash;
+
+        private Owned(String value) {
+            this.value = value;
+            this.utf8 = value.getBytes(StandardCharsets.UTF_8);
+            int h = 1;
+            for (byte b : utf8) {
+                h = 31 * h + b;
+            }
+            this.hash = h;
+        }
+
+        private Owned(String value, byte[] utf8, int hash) {
+            this.value = value;
+            this.utf8 = utf8;
+            this.hash = hash;
+        }
+
+        @Override
+        public String value() {
+            return value;
+        }
+
+        @Override
+        byte[] utf8() {
+            return utf8;
+        }
+
+        @Override
+        int utf8Length() {
+            return utf8.length;
+        }
+
+        @Override
+        byte utf8At(int index) {
+            return utf8[index];
+        }
+
+        @Override
+        EmailKey stored() {
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return value.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return value.charAt(index);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Lookup-only view over raw, un-normalized input. {@code wrap} strips and
+     * hashes the input in one pass; nothing is copied for ASCII input, and
+     * the view is re-pointed for the next lookup instead of allocating a new
+     * key. Not thread-safe, and only valid while the wrapped input is
+     * unchanged: use one per thread and never store it.
+     */
+    static final class Lookup extends EmailKey {
+        private CharSequence chars;
+        private byte[] bytes;
+        private int start;
+        private int length;
+        private int hash;
+        private Owned fallback; // non-ASCII input, canonicalized the slow way
+
+        Lookup wrap(CharSequence email) {
+            Objects.requireNonNull(email, "Email cannot be null");
+            int from = strippedStart(email);
+            int end = strippedEnd(email, from);
+            int h = 1;
+            for (int i = from; i < end; i++) {
+                char c = email.charAt(i);
+                if (c >= 0x80) {
+                    return fallBack((Owned) EmailKey.of(email));
+                }
+                h = 31 * h + toLowerAscii(c);
+            }
+            return point(email, null, from, end - from, h);
+        }
+
+        Lookup wrap(byte[] utf8, int offset, int length) {
+            Objects.checkFromIndexSize(offset, length, utf8.length);
+            int from = offset;
+            int end = offset + length;
+            while (from < end && isAsciiWhitespace(utf8[from])) {
+                from++;
+            }
+            while (end > from && isAsciiWhitespace(utf8[end - 1])) {
+                end--;
+            }
+            int h = 1;
+            for (int i = from; i < end; i++) {
+                byte b = utf8[i];
+                if (b < 0) {
+                    return fallBack((Owned) EmailKey.of(new String(utf8, offset, length, StandardCharsets.UTF_8)));
+                }
+                h = 31 * h + toLowerAscii(b);
+            }
+            return point(null, utf8, from, end - from, h);
+        }
+
+        private Lookup point(CharSequence chars, byte[] bytes, int start, int length, int hash) {
+            this.chars = chars;
+            this.bytes = bytes;
+            this.start = start;
+            this.length = length;
+            this.hash = hash;
+            this.fallback = null;
+            return this;
+        }
+
+        private Lookup fallBack(Owned key) {
+            point(null, null, 0, 0, key.hash);
+            this.fallback = key;
+            return this;
+        }
+
+        @Override
+        public String value() {
+            return stored().value();
+        }
+
+        @Override
+        byte[] utf8() {
+            return stored().utf8();
+        }
+
+        @Override
+        int utf8Length() {
+            return fallback != null ? fallback.utf8Length() : length;
+        }
+
+        @Override
+        byte utf8At(int index) {
+            return fallback != null ? fallback.utf8At(index) : (byte) charAt(index);
+        }
+
+        @Override
+        EmailKey stored() {
+            if (fallback != null) {
+                return fallback;
+            }
+            byte[] folded = new byte[length];
+            for (int i = 0; i < length; i++) {
+                folded[i] = utf8At(i);
+            }
+            return new Owned(new String(folded, StandardCharsets.ISO_8859_1), folded, hash);
+        }
+
+        @Override
+        public int length() {
+            return fallback != null ? fallback.length() : length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (fallback != null) {
+                return fallback.charAt(index);
+            }
+            Objects.checkIndex(index, length);
+            int c = chars != null ? chars.charAt(start + index) : bytes[start + index];
+            return (char) toLowerAscii(c);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
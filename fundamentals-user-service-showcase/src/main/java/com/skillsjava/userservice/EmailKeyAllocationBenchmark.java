@@ -0,0 +1,79 @@
+package com.skillsjava.userservice;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * BENCHMARK: Bytes allocated and time per normalized email lookup.
+ * <p>
+ * Compares the naive {@code trim().toLowerCase(Locale.ROOT)} key with an owned
+ * {@link EmailKey} and with a reused {@link EmailKey.Lookup} view, for
+ * canonical and mixed-case input, from a {@code String} and from a UTF-8
+ * request buffer. Allocation is read from the current thread's allocation
+ * counter, so the numbers include everything the lookup creates (strings,
+ * arrays, key objects not removed by escape analysis). The lookup view rows
+ * are expected to show 0 bytes/op.
+ */
+public final class EmailKeyAllocationBenchmark {
+    private static final int USERS = 10_000;
+    private static final int ROUNDS = 5_000_000;
+
+    public static void main(String[] args) {
+        String[] canonical = new String[USERS];
+        String[] mixedCase = new String[USERS];
+        byte[][] requestBuffers = new byte[USERS][];
+        Map<String, Integer> byString = new HashMap<>();
+        Map<EmailKey, Integer> byKey = new HashMap<>();
+        ConcurrentUserRepository repository = new ConcurrentUserRepository();
+        for (int i = 0; i < USERS; i++) {
+            canonical[i] = "user" + i + "@example.com";
+            mixedCase[i] = " User" + i + "@Example.com";
+            requestBuffers[i] = ("email=" + mixedCase[i] + "&password=x").getBytes(StandardCharsets.UTF_8);
+            byString.put(canonical[i], i);
+            byKey.put(EmailKey.of(canonical[i]), i);
+            repository.save(new User(new UUID(0, i), "User " + i, canonical[i], new char[0]));
+        }
+        int prefix = "email=".length();
+        EmailKey.Lookup lookup = new EmailKey.Lookup();
+
+        System.out.println("=== Email key allocation benchmark (" + ROUNDS + " lookups) ===\n");
+        run("toLowerCase, canonical input", i -> byString.get(canonical[i].trim().toLowerCase(Locale.ROOT)));
+        run("toLowerCase, mixed-case input", i -> byString.get(mixedCase[i].trim().toLowerCase(Locale.ROOT)));
+        run("EmailKey.of, canonical input", i -> byKey.get(EmailKey.of(canonical[i])));
+        run("EmailKey.of, mixed-case input", i -> byKey.get(EmailKey.of(mixedCase[i])));
+        run("Lookup view, mixed-case input", i -> byKey.get(lookup.wrap(mixedCase[i])));
+        run("Lookup view, byte[] request buffer", i -> byKey.get(lookup.wrap(requestBuffers[i], prefix,
+                mixedCase[i].length())));
+        run("Lookup view, repository findByEmail", i -> repository.findByEmail(lookup.wrap(mixedCase[i]))
+                .map(user -> (int) user.id().getLeastSignificantBits()).orElse(-1));
+    }
+
+    private static void run(String label, IntUnaryOperator lookup) {
+        long sink = measure(lookup, ROUNDS / 5); // warm-up
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        sink += measure(lookup, ROUNDS);
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+
+        System.out.printf("%-38s %6.1f ns/op  %6.1f bytes/op [%d]%n",
+                label, (double) elapsed / ROUNDS, (double) allocated / ROUNDS, sink & 1);
+    }
+
+    private static long measure(IntUnaryOperator lookup, int rounds) {
+        long sink = 0;
+        for (int r = 0; r < rounds; r++) {
+            sink += lookup.applyAsInt(r % USERS);
+        }
+        return sink;
+    }
+}
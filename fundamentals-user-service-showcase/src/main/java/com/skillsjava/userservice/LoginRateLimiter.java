@@ -0,0 +1,192 @@
+package com.skillsjava.userservice;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SECURITY: Token-bucket throttle for login attempts, per email and global.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the bucket's "theoretical
+ * arrival time" (the generic cell rate algorithm): taking a token is one read
+ * and one CAS, with no lock and no background refill thread. A bucket whose
+ * time lies in the past is full again and therefore equivalent to a fresh
+ * one, which is what makes idle buckets safe to evict.
+ * <p>
+ * Idle buckets are evicted by {@link #scheduleEviction}, never on the login
+ * path. Memory is bounded regardless: once {@value #MAX_TRACKED_EMAILS}
+ * emails are tracked, attempts for untracked emails are limited by the
+ * global bucket alone until a sweep makes room.
+ * <p>
+ * {@link UserService#login} asks the limiter before touching the repository
+ * or the password hasher, so a brute-force storm against one account (or a
+ * spray across many) is turned away for the price of a map lookup and a CAS.
+ */
+final class LoginRateLimiter {
+    private static final LoginRateLimiter UNLIMITED = new LoginRateLimiter();
+    // Hard cap on per-email buckets; beyond it new emails share the global bucket
+    private static final int MAX_TRACKED_EMAILS = 100_000;
+
+    private final boolean enabled;
+    private final long emailIntervalNanos;
+    private final long emailBurstNanos;
+    private final long globalIntervalNanos;
+    private final long globalBurstNanos;
+
+    private final Bucket global = new Bucket();
+    private final ConcurrentMap<EmailKey, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejectedPerEmail = new LongAdder();
+    private final LongAdder rejectedGlobal = new LongAdder();
+    private final LongAdder untracked = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    record Stats(long allowed, long rejectedPerEmail, long rejectedGlobal, int trackedEmails, long untracked,
+                 long evicted) {
+    }
+
+    /**
+     * @param perEmailAttempts burst size and refill amount per {@code perEmailPeriod} for one email
+     * @param globalAttempts   burst size and refill amount per {@code globalPeriod} across all emails
+     */
+    public LoginRateLimiter(int perEmailAttempts, Duration perEmailPeriod, int globalAttempts, Duration globalPeriod) {
+        Objects.requireNonNull(perEmailPeriod, "Per-email period cannot be null");
+        Objects.requireNonNull(globalPeriod, "Global period cannot be null");
+        if (perEmailAttempts < 1 || globalAttempts < 1 || perEmailPeriod.isNegative() || perEmailPeriod.isZero()
+                || globalPeriod.isNegative() || globalPeriod.isZero()) {
+            throw new IllegalArgumentException("Attempts and periods must be positive");
+        }
+        this.enabled = true;
+        this.emailIntervalNanos = Math.max(1, perEmailPeriod.toNanos() / perEmailAttempts);
+        this.emailBurstNanos = emailIntervalNanos * perEmailAttempts;
+        this.globalIntervalNanos = Math.max(1, globalPeriod.toNanos() / globalAttempts);
+        this.globalBurstNanos = globalIntervalNanos * globalAttempts;
+    }
+
+    private LoginRateLimiter() {
+        this.enabled = false;
+        this.emailIntervalNanos = 0;
+        this.emailBurstNanos = 0;
+        this.globalIntervalNanos = 0;
+        this.globalBurstNanos = 0;
+    }
+
+    /**
+     * A limiter that lets every attempt through.
+     */
+    public static LoginRateLimiter unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * Takes one token from the email's bucket and one from the global bucket.
+     * The per-email bucket is checked first so that a single hammered account
+     * cannot drain the global budget for everyone else; its token is given
+     * back if the global bucket then refuses the attempt. An email that is
+     * not tracked while the map is full only takes a global token.
+     *
+     * @return {@code false} if the attempt must be rejected
+     */
+    public boolean tryAcquire(EmailKey email) {
+        if (!enabled) {
+            return true;
+        }
+        long now = System.nanoTime();
+        Bucket bucket = buckets.get(email);
+        if (bucket == null) {
+            if (buckets.size() < MAX_TRACKED_EMAILS) {
+                // The map keeps its keys: never a caller's lookup view
+                bucket = buckets.computeIfAbsent(email.stored(), key -> new Bucket());
+            } else {
+                untracked.increment();
+            }
+        }
+        if (bucket != null && !bucket.tryTake(now, emailIntervalNanos, emailBurstNanos)) {
+            rejectedPerEmail.increment();
+            return false;
+        }
+        if (!global.tryTake(now, globalIntervalNanos, globalBurstNanos)) {
+            if (bucket != null) {
+                bucket.giveBack(emailIntervalNanos);
+            }
+            rejectedGlobal.increment();
+            return false;
+        }
+        allowed.increment();
+        return true;
+    }
+
+    /**
+     * Drops buckets that have refilled completely. A thread racing with
+     * eviction can at worst be granted one extra attempt.
+     */
+    public void evictIdle() {
+        if (!enabled || !sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        long now = System.nanoTime();
+        try {
+            buckets.forEach((email, bucket) -> {
+                if (bucket.isFull(now) && buckets.remove(email, bucket)) {
+                    evicted.increment();
+                }
+            });
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    /**
+     * Periodically evicts idle buckets on {@code scheduler}, off the login path.
+     */
+    public ScheduledFuture<?> scheduleEviction(ScheduledExecutorService scheduler, Duration period) {
+        long millis = period.toMillis();
+        return scheduler.scheduleWithFixedDelay(this::evictIdle, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    public Stats stats() {
+        return new Stats(allowed.sum(), rejectedPerEmail.sum(), rejectedGlobal.sum(), buckets.size(),
+                untracked.sum(), evicted.sum());
+    }
+
+    /**
+     * Token bucket as a single timestamp: the instant at which the bucket
+     * would be full again. Taking a token pushes it one interval forward;
+     * the attempt is refused if that lands more than a burst ahead of now.
+     */
+    private static final class Bucket {
+        private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+        boolean tryTake(long now, long intervalNanos, long burstNanos) {
+            while (true) {
+                long current = fullAt.get();
+                long next = (current == Long.MIN_VALUE || current - now < 0 ? now : current) + intervalNanos;
+                if (next - now > burstNanos) {
+                    return false;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        /** Returns a token taken by {@link #tryTake}. */
+        void giveBack(long intervalNanos) {
+            fullAt.addAndGet(-intervalNanos);
+        }
+
+        boolean isFull(long now) {
+            long current = fullAt.get();
+            return current == Long.MIN_VALUE || current - now <= 0;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.skillsjava.userservice;
+
+import com.github.f4b6a3.uuid.UuidCreator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * BENCHMARK: Cold start of {@link MappedLogUserRepository}.
+ * <p>
+ * Writes the given number of users (first argument, default 2M), then times
+ * a restart from the snapshot and a restart that has to rebuild the indexes
+ * by scanning the whole log. Run twice to compare warm and cold page cache.
+ */
+public final class MappedLogRestartBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Path directory = Files.createTempDirectory("user-log-bench");
+        System.out.println("=== MappedLogUserRepository restart benchmark (" + users + " users) ===\n");
+
+        try {
+            long start = System.nanoTime();
+            try (MappedLogUserRepository repository = MappedLogUserRepository.open(directory)) {
+                for (int i = 0; i < users; i++) {
+                    repository.save(new User(UuidCreator.getTimeOrderedEpoch(), "User " + i,
+                            "user" + i + "@example.com", "0123456789abcdef".toCharArray()));
+                }
+            }
+            report("Write + close (with snapshot)", start, directory);
+
+            start = System.nanoTime();
+            try (MappedLogUserRepository repository = MappedLogUserRepository.open(directory)) {
+                report("Restart from snapshot", start, repository.size());
+            }
+
+            Files.delete(directory.resolve("users.snapshot"));
+            start = System.nanoTime();
+            try (MappedLogUserRepository repository = MappedLogUserRepository.open(directory)) {
+                report("Restart by full log scan", start, repository.size());
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static void report(String label, long startNanos, Path directory) throws IOException {
+        long bytes = Files.size(directory.resolve("users.log")) + Files.size(directory.resolve("users.snapshot"));
+        System.out.printf("%-30s %,8.1f ms (%,d MB on disk)%n", label,
+                (System.nanoTime() - startNanos) / 1_000_000.0, bytes >> 20);
+    }
+
+    private static void report(String label, long startNanos, int users) {
+        System.out.printf("%-30s %,8.1f ms (%,d users)%n", label,
+                (System.nanoTime() - startNanos) / 1_000_000.0, users);
+    }
+}
@@ -0,0 +1,678 @@
+package com.skillsjava.userservice;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * INFRASTRUCTURE: Persistent repository backed by a memory-mapped,
+ * append-only log.
+ * <p>
+ * Layout of {@code users.log}: a 16-byte header {@code [magic][version][generation]}
+ * followed by records {@code [bodyLength][crc32][body]}, where the body is
+ * {@code [msb][lsb][nameLen][name][emailLen][email][hashLen][hash]}. The
+ * length is written last, so a record is visible only once it is complete;
+ * the CRC catches torn pages after a crash. The file is grown in large zeroed
+ * steps, and a zero length marks the end of the log.
+ * <p>
+ * The id and email indexes are primitive open-addressing tables of log
+ * offsets (same scheme as {@link CompactUserRepository}), so a full rebuild
+ * reads the log sequentially straight from the mapping without allocating per
+ * record. {@code users.snapshot} stores those tables plus the log position
+ * they cover; on restart the tables are bulk-loaded and only the log tail
+ * after the snapshot is scanned.
+ * <p>
+ * Overwriting a user leaves the old record dead in the log; {@link #compact()}
+ * rewrites the live records into a fresh log and writes a new snapshot.
+ * The log is mapped as a single buffer and therefore limited to 2 GB.
+ */
+final class MappedLogUserRepository implements UserRepository, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(MappedLogUserRepository.class);
+
+    private static final String LOG_FILE = "users.log";
+    private static final String SNAPSHOT_FILE = "users.snapshot";
+    private static final int LOG_MAGIC = 0x55534C47; // "USLG"
+    private static final int SNAPSHOT_MAGIC = 0x55535350; // "USSP"
+    private static final int VERSION = 1;
+    private static final int LOG_HEADER = 16;
+    private static final int SNAPSHOT_HEADER = 40;
+    private static final int RECORD_HEADER = 8;
+    private static final int MIN_MAPPING = 1 << 20;
+    private static final int MAX_MAPPING = Integer.MAX_VALUE - 8;
+
+    private static final int NOT_FOUND = -1;
+    private static final int MAX_LOAD_PERCENT = 50;
+    private static final int ID_STRIDE = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final CRC32 crc = new CRC32();
+    private final Path logFile;
+    private final Path snapshotFile;
+
+    private FileChannel channel;
+    private MappedByteBuffer log;
+    private ByteBuffer crcView;
+    private long generation;
+    private int logEnd;
+    private int deadBytes;
+    private int snapshotEnd;
+    private int size;
+
+    // offset + 1 per slot, 0 = empty (see CompactUserRepository)
+    private long[] idTable;
+    private int[] emailTable;
+    private int mask;
+
+    private MappedLogUserRepository(Path directory) {
+        this.logFile = directory.resolve(LOG_FILE);
+        this.snapshotFile = directory.resolve(SNAPSHOT_FILE);
+    }
+
+    /**
+     * Opens (or creates) the repository stored in the given directory.
+     */
+    public static MappedLogUserRepository open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        MappedLogUserRepository repository = new MappedLogUserRepository(directory);
+        long start = System.nanoTime();
+        repository.load();
+        logger.info("Opened {} users from {} in {} ms", repository.size, directory,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return repository;
+    }
+
+    @Override
+    public void save(User user) {
+        EmailKey email = EmailKey.of(user.email());
+        lock.writeLock().lock();
+        try {
+            upsert(user, email);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean saveIfEmailAbsent(User user) {
+        EmailKey email = EmailKey.of(user.email());
+        lock.writeLock().lock();
+        try {
+            if (findEmailOffset(email) != NOT_FOUND) {
+                return false;
+            }
+            upsert(user, email);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public BitSet saveAll(List<User> users) {
+        EmailKey[] emails = new EmailKey[users.size()];
+        for (int i = 0; i < emails.length; i++) {
+            emails[i] = EmailKey.of(users.get(i).email());
+        }
+        BitSet stored = new BitSet(emails.length);
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < emails.length; i++) {
+                if (findEmailOffset(emails[i]) == NOT_FOUND) {
+                    upsert(users.get(i), emails[i]);
+                    stored.set(i);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return stored;
+    }
+
+    @Override
+    public Optional<User> findByEmail(EmailKey email) {
+        lock.readLock().lock();
+        try {
+            int offset = findEmailOffset(email);
+            return offset == NOT_FOUND ? Optional.empty() : Optional.of(read(offset));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<User> findById(UUID id) {
+        lock.readLock().lock();
+        try {
+            int slot = findIdSlot(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            return slot == NOT_FOUND ? Optional.empty() : Optional.of(read(offsetAt(slot)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Forces appended records to disk and writes a snapshot of the indexes,
+     * so the next start only has to scan records appended after this call.
+     */
+    public void snapshot() {
+        lock.writeLock().lock();
+        try {
+            log.force();
+            writeSnapshot();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Snapshot failed for " + snapshotFile, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites the log with live records only, then snapshots the result.
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            int before = logEnd;
+            Path compacted = logFile.resolveSibling(LOG_FILE + ".compact");
+            try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                int liveEnd = logEnd - deadBytes;
+                MappedByteBuffer out = target.map(FileChannel.MapMode.READ_WRITE, 0,
+                        Math.max(MIN_MAPPING, liveEnd + (liveEnd >> 2)));
+                long newGeneration = ThreadLocalRandom.current().nextLong();
+                writeLogHeader(out, newGeneration);
+                int pos = LOG_HEADER;
+                for (int offset = LOG_HEADER; offset < logEnd; offset += RECORD_HEADER + log.getInt(offset)) {
+                    if (isLive(offset)) {
+                        int length = RECORD_HEADER + log.getInt(offset);
+                        out.put(pos, log, offset, length);
+                        pos += length;
+                    }
+                }
+                out.force();
+            }
+            Files.move(compacted, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel.close();
+            Files.deleteIfExists(snapshotFile);
+            load();
+            writeSnapshot();
+            logger.info("Compacted {}: {} -> {} bytes", logFile, before, logEnd);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Compaction failed for " + logFile, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Periodically compacts once dead records outweigh live ones, and
+     * snapshots otherwise whenever records were appended since the last one.
+     */
+    public ScheduledFuture<?> scheduleMaintenance(ScheduledExecutorService scheduler, Duration period) {
+        long millis = period.toMillis();
+        return scheduler.scheduleWithFixedDelay(this::maintain, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            log.force();
+            writeSnapshot();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void maintain() {
+        try {
+            boolean compactNeeded;
+            boolean snapshotNeeded;
+            lock.readLock().lock();
+            try {
+                compactNeeded = deadBytes > logEnd - LOG_HEADER - deadBytes;
+                snapshotNeeded = logEnd != snapshotEnd;
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (compactNeeded) {
+                compact();
+            } else if (snapshotNeeded) {
+                snapshot();
+            }
+        } catch (RuntimeException e) {
+            // Keep the schedule alive; the next run retries
+            logger.error("Maintenance failed for {}", logFile, e);
+        }
+    }
+
+    // --- Startup ---
+
+    private void load() throws IOException {
+        channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        boolean fresh = channel.size() == 0;
+        map((int) Math.min(MAX_MAPPING, Math.max(MIN_MAPPING, channel.size())));
+        if (fresh) {
+            generation = ThreadLocalRandom.current().nextLong();
+            writeLogHeader(log, generation);
+        } else if (log.getInt(0) != LOG_MAGIC || log.getInt(4) != VERSION) {
+            throw new IOException("Not a user log: " + logFile);
+        } else {
+            generation = log.getLong(8);
+        }
+
+        logEnd = LOG_HEADER;
+        deadBytes = 0;
+        size = 0;
+        snapshotEnd = 0;
+        if (!loadSnapshot()) {
+            allocateTables(16);
+        }
+        scanFrom(logEnd);
+    }
+
+    /**
+     * Replays complete records from the given offset. Reads go straight to the
+     * mapping and the indexes store offsets, so nothing is allocated per record.
+     */
+    private void scanFrom(int offset) {
+        while (offset + RECORD_HEADER <= log.capacity()) {
+            int length = log.getInt(offset);
+            if (length <= 0 || offset + RECORD_HEADER + length > log.capacity()
+                    || checksum(offset + RECORD_HEADER, length) != log.getInt(offset + 4)) {
+                break;
+            }
+            index(offset);
+            offset += RECORD_HEADER + length;
+        }
+        if (offset < log.capacity()) {
+            // Drop a torn tail so new appends start from a clean position
+            for (int i = offset; i < Math.min(log.capacity(), offset + RECORD_HEADER); i++) {
+                log.put(i, (byte) 0);
+            }
+        }
+        logEnd = offset;
+    }
+
+    private boolean loadSnapshot() throws IOException {
+        if (!Files.exists(snapshotFile)) {
+            return false;
+        }
+        try (FileChannel in = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            if (in.size() < SNAPSHOT_HEADER) {
+                return false;
+            }
+            MappedByteBuffer snapshot = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            int slots = snapshot.getInt(32);
+            if (snapshot.getInt(0) != SNAPSHOT_MAGIC || snapshot.getInt(4) != VERSION
+                    || snapshot.getLong(8) != generation || Integer.bitCount(slots) != 1
+                    || in.size() != SNAPSHOT_HEADER + slots * (ID_STRIDE * 8L + 8L)) {
+                logger.warn("Ignoring stale snapshot {}", snapshotFile);
+                return false;
+            }
+            int end = snapshot.getInt(16);
+            if (end > log.capacity()) {
+                return false;
+            }
+            allocateTables(slots);
+            snapshot.position(SNAPSHOT_HEADER);
+            snapshot.asLongBuffer().get(idTable);
+            snapshot.position(SNAPSHOT_HEADER + idTable.length * 8);
+            snapshot.asIntBuffer().get(emailTable);
+            logEnd = end;
+            snapshotEnd = end;
+            size = snapshot.getInt(20);
+            deadBytes = snapshot.getInt(24);
+            return true;
+        }
+    }
+
+    private void writeSnapshot() throws IOException {
+        Path tmp = snapshotFile.resolveSibling(SNAPSHOT_FILE + ".tmp");
+        long length = SNAPSHOT_HEADER + idTable.length * 8L + emailTable.length * 4L;
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer snapshot = out.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            snapshot.putInt(0, SNAPSHOT_MAGIC)
+                    .putInt(4, VERSION)
+                    .putLong(8, generation)
+                    .putInt(16, logEnd)
+                    .putInt(20, size)
+                    .putInt(24, deadBytes)
+                    .putInt(32, mask + 1);
+            snapshot.position(SNAPSHOT_HEADER);
+            snapshot.asLongBuffer().put(idTable);
+            snapshot.position(SNAPSHOT_HEADER + idTable.length * 8);
+            snapshot.asIntBuffer().put(emailTable);
+            snapshot.force();
+        }
+        Files.move(tmp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        snapshotEnd = logEnd;
+    }
+
+    // --- Log ---
+
+    private void upsert(User user, EmailKey email) {
+        int offset = append(user, email);
+        int slot = findIdSlot(user.id().getMostSignificantBits(), user.id().getLeastSignificantBits());
+        if (slot == NOT_FOUND) {
+            index(offset);
+            return;
+        }
+        // Overwrite: the previous record becomes dead, repoint both indexes
+        int previous = offsetAt(slot);
+        deadBytes += RECORD_HEADER + log.getInt(previous);
+        removeEmail(previous);
+        idTable[slot * ID_STRIDE + 2] = offset + 1;
+        putEmail(offset);
+    }
+
+    private int append(User user, EmailKey key) {
+        byte[] name = user.name().getBytes(StandardCharsets.UTF_8);
+        byte[] email = key.utf8();
+        char[] hash = user.passwordHash();
+        long bodyLength = 28L + name.length + email.length + hash.length * 2L;
+        ensureCapacity(RECORD_HEADER + bodyLength + RECORD_HEADER);
+
+        int offset = logEnd;
+        int pos = offset + RECORD_HEADER;
+        log.putLong(pos, user.id().getMostSignificantBits());
+        log.putLong(pos + 8, user.id().getLeastSignificantBits());
+        pos = putBytes(pos + 16, name);
+        pos = putBytes(pos, email);
+        log.putInt(pos, hash.length);
+        pos += 4;
+        for (char c : hash) {
+            log.putChar(pos, c);
+            pos += 2;
+        }
+        // Terminate the log behind the record, then publish: checksum, length last
+        log.putLong(pos, 0L);
+        log.putInt(offset + 4, checksum(offset + RECORD_HEADER, (int) bodyLength));
+        log.putInt(offset, (int) bodyLength);
+        logEnd = pos;
+        return offset;
+    }
+
+    private User read(int offset) {
+        int pos = offset + RECORD_HEADER;
+        UUID id = new UUID(log.getLong(pos), log.getLong(pos + 8));
+        pos += 16;
+        byte[] name = new byte[log.getInt(pos)];
+        log.get(pos + 4, name);
+        pos += 4 + name.length;
+        byte[] email = new byte[log.getInt(pos)];
+        log.get(pos + 4, email);
+        pos += 4 + email.length;
+        char[] hash = new char[log.getInt(pos)];
+        pos += 4;
+        for (int i = 0; i < hash.length; i++, pos += 2) {
+            hash[i] = log.getChar(pos);
+        }
+        return new User(id, new String(name, StandardCharsets.UTF_8), new String(email, StandardCharsets.UTF_8), hash);
+    }
+
+    private boolean isLive(int offset) {
+        int slot = findIdSlot(log.getLong(offset + RECORD_HEADER), log.getLong(offset + RECORD_HEADER + 8));
+        return slot != NOT_FOUND && offsetAt(slot) == offset;
+    }
+
+    /** Position of the email length prefix of the record at offset. */
+    private int emailPosition(int offset) {
+        int pos = offset + RECORD_HEADER + 16;
+        return pos + 4 + log.getInt(pos);
+    }
+
+    private int putBytes(int pos, byte[] bytes) {
+        log.putInt(pos, bytes.length);
+        log.put(pos + 4, bytes);
+        return pos + 4 + bytes.length;
+    }
+
+    private int checksum(int from, int length) {
+        crcView.limit(from + length).position(from);
+        crc.reset();
+        crc.update(crcView);
+        return (int) crc.getValue();
+    }
+
+    private void ensureCapacity(long needed) {
+        long required = logEnd + needed;
+        if (required > MAX_MAPPING) {
+            throw new UserServiceException("MappedLogUserRepository log is full, run compact()");
+        }
+        if (required > log.capacity()) {
+            try {
+                map((int) Math.min(MAX_MAPPING, Math.max(required, (long) log.capacity() << 1)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot grow " + logFile, e);
+            }
+        }
+    }
+
+    private void map(int capacity) throws IOException {
+        log = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        crcView = log.duplicate();
+    }
+
+    private static void writeLogHeader(ByteBuffer buffer, long generation) {
+        buffer.putInt(0, LOG_MAGIC).putInt(4, VERSION).putLong(8, generation);
+    }
+
+    // --- Indexes ---
+
+    /** Adds a record found in (or just appended to) the log to both indexes. */
+    private void index(int offset) {
+        long msb = log.getLong(offset + RECORD_HEADER);
+        long lsb = log.getLong(offset + RECORD_HEADER + 8);
+        int slot = findIdSlot(msb, lsb);
+        if (slot != NOT_FOUND) {
+            // Replay of an overwrite
+            int previous = offsetAt(slot);
+            deadBytes += RECORD_HEADER + log.getInt(previous);
+            removeEmail(previous);
+            idTable[slot * ID_STRIDE + 2] = offset + 1;
+            putEmail(offset);
+            return;
+        }
+        if ((size + 1) * 100L > (mask + 1L) * MAX_LOAD_PERCENT) {
+            rehash((mask + 1) << 1);
+        }
+        insertId(msb, lsb, offset);
+        putEmail(offset);
+        size++;
+    }
+
+    private int offsetAt(int slot) {
+        return (int) idTable[slot * ID_STRIDE + 2] - 1;
+    }
+
+    private int findIdSlot(long msb, long lsb) {
+        for (int slot = hash(msb, lsb) & mask;; slot = (slot + 1) & mask) {
+            int base = slot * ID_STRIDE;
+            if (idTable[base + 2] == 0) {
+                return NOT_FOUND;
+            }
+            if (idTable[base] == msb && idTable[base + 1] == lsb) {
+                return slot;
+            }
+        }
+    }
+
+    private void insertId(long msb, long lsb, int offset) {
+        int slot = hash(msb, lsb) & mask;
+        while (idTable[slot * ID_STRIDE + 2] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        int base = slot * ID_STRIDE;
+        idTable[base] = msb;
+        idTable[base + 1] = lsb;
+        idTable[base + 2] = offset + 1;
+    }
+
+    private int findEmailOffset(EmailKey email) {
+        int hash = mix(email.hashCode());
+        for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+            int entry = emailTable[(slot << 1) + 1];
+            if (entry == 0) {
+                return NOT_FOUND;
+            }
+            if (emailTable[slot << 1] == hash && emailEquals(entry - 1, email)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * Points the record's email at it, replacing any previous owner.
+     */
+    private void putEmail(int offset) {
+        int hash = emailHash(offset);
+        int slot = hash & mask;
+        for (int entry; (entry = emailTable[(slot << 1) + 1]) != 0; slot = (slot + 1) & mask) {
+            if (emailTable[slot << 1] == hash && sameEmail(entry - 1, offset)) {
+                break;
+            }
+        }
+        emailTable[slot << 1] = hash;
+        emailTable[(slot << 1) + 1] = offset + 1;
+    }
+
+    /**
+     * Backward-shift deletion keeps probe chains intact without tombstones.
+     */
+    private void removeEmail(int offset) {
+        int slot = emailHash(offset) & mask;
+        while (emailTable[(slot << 1) + 1] != offset + 1) {
+            if (emailTable[(slot << 1) + 1] == 0) {
+                return; // Email was already taken over by another record
+            }
+            slot = (slot + 1) & mask;
+        }
+        int hole = slot;
+        for (int next = (hole + 1) & mask; emailTable[(next << 1) + 1] != 0; next = (next + 1) & mask) {
+            int home = emailTable[next << 1] & mask;
+            boolean movable = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (movable) {
+                emailTable[hole << 1] = emailTable[next << 1];
+                emailTable[(hole << 1) + 1] = emailTable[(next << 1) + 1];
+                hole = next;
+            }
+        }
+        emailTable[hole << 1] = 0;
+        emailTable[(hole << 1) + 1] = 0;
+    }
+
+    private boolean emailEquals(int offset, EmailKey email) {
+        int pos = emailPosition(offset);
+        int length = email.utf8Length();
+        if (log.getInt(pos) != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (log.get(pos + 4 + i) != email.utf8At(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean sameEmail(int offset, int otherOffset) {
+        int pos = emailPosition(offset);
+        int other = emailPosition(otherOffset);
+        int length = log.getInt(pos);
+        if (log.getInt(other) != length) {
+            return false;
+        }
+        for (int i = 4; i < length + 4; i++) {
+            if (log.get(pos + i) != log.get(other + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same polynomial as {@link EmailKey#hashCode()}; snapshots store it, so
+     * it must not change without a new {@code VERSION}.
+     */
+    private int emailHash(int offset) {
+        int pos = emailPosition(offset);
+        int h = 1;
+        for (int i = pos + 4, end = pos + 4 + log.getInt(pos); i < end; i++) {
+            h = 31 * h + log.get(i);
+        }
+        return mix(h);
+    }
+
+    private void allocateTables(int slots) {
+        idTable = new long[slots * ID_STRIDE];
+        emailTable = new int[slots * 2];
+        mask = slots - 1;
+    }
+
+    private void rehash(int newSlots) {
+        long[] oldIds = idTable;
+        int[] oldEmails = emailTable;
+        allocateTables(newSlots);
+        for (int base = 0; base < oldIds.length; base += ID_STRIDE) {
+            if (oldIds[base + 2] != 0) {
+                insertId(oldIds[base], oldIds[base + 1], (int) oldIds[base + 2] - 1);
+            }
+        }
+        for (int i = 0; i < oldEmails.length; i += 2) {
+            if (oldEmails[i + 1] != 0) {
+                int slot = oldEmails[i] & mask;
+                while (emailTable[(slot << 1) + 1] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                emailTable[slot << 1] = oldEmails[i];
+                emailTable[(slot << 1) + 1] = oldEmails[i + 1];
+            }
+        }
+    }
+
+    private static int hash(long msb, long lsb) {
+        return mix(msb * 0x9E3779B97F4A7C15L ^ lsb);
+    }
+
+    private static int mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
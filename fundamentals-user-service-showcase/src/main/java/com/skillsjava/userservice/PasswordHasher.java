@@ -0,0 +1,15 @@
+package com.skillsjava.userservice;
+
+/**
+ * CONTRACT: Turns a cleartext password into a storable hash and checks it later.
+ * Implementations never modify the cleartext; burning it is the caller's job.
+ */
+interface PasswordHasher {
+    char[] hash(char[] password);
+
+    /**
+     * Must run in time independent of where the stored hash and the
+     * candidate first differ.
+     */
+    boolean verify(char[] password, char[] storedHash);
+}
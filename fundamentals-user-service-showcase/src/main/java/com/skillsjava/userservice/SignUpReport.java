@@ -0,0 +1,20 @@
+package com.skillsjava.userservice;
+
+import java.util.List;
+
+/**
+ * DOMAIN: Outcome of a bulk import, one result per input record (in input order).
+ */
+record SignUpReport(List<SignUpResult> results) {
+    SignUpReport {
+        results = List.copyOf(results);
+    }
+
+    public long createdCount() {
+        return results.stream().filter(SignUpResult.Created.class::isInstance).count();
+    }
+
+    public long rejectedCount() {
+        return results.size() - createdCount();
+    }
+}
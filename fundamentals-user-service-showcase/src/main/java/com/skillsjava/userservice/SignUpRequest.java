@@ -0,0 +1,7 @@
+package com.skillsjava.userservice;
+
+/**
+ * DOMAIN: One record of a bulk import.
+ */
+record SignUpRequest(String name, String email, char[] password) {
+}
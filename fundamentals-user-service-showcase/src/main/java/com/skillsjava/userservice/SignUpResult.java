@@ -0,0 +1,37 @@
+package com.skillsjava.userservice;
+
+import java.util.Objects;
+
+/**
+ * DOMAIN: Result of a single record in a bulk import.
+ * Sealed so callers can switch over every possible outcome.
+ */
+sealed interface SignUpResult {
+    /** Position of the record in the imported feed. */
+    int index();
+
+    record Created(int index, User user) implements SignUpResult {
+        public Created {
+            Objects.requireNonNull(user, "User cannot be null");
+        }
+    }
+
+    record Rejected(int index, String email, Reason reason, String message) implements SignUpResult {
+        public Rejected {
+            Objects.requireNonNull(reason, "Reason cannot be null");
+        }
+    }
+
+    enum Reason {
+        /** Failed the same guard clauses as {@code signUp}. */
+        INVALID,
+        /** An earlier record of the same import already uses the email. */
+        DUPLICATE_IN_BATCH,
+        /** The repository already has a user with the email. */
+        EMAIL_TAKEN,
+        /** Password hashing was shedding load; the record can be retried. */
+        BUSY,
+        /** Password hashing failed unexpectedly; the message says why. */
+        FAILED
+    }
+}
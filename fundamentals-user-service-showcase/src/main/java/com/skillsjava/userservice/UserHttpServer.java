@@ -0,0 +1,201 @@
+package com.skillsjava.userservice;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ADAPTER: Minimal HTTP front end for {@link UserService} on loopback.
+ * <p>
+ * Endpoints (form-encoded bodies):
+ * <ul>
+ * <li>{@code POST /signup} with {@code name, email, password}: 201 with the
+ * new id, 400 when the service rejects the request.</li>
+ * <li>{@code POST /login} with {@code email, password}: 204, 401 on bad
+ * credentials, or 429 when the login rate limit is exceeded.</li>
+ * </ul>
+ * Both answer 400 for a malformed form, 413 for a body over
+ * {@value #MAX_BODY_BYTES} bytes, 500 for an unexpected failure and 503 when
+ * the service is shedding load.
+ * Each exchange runs on the supplied executor. The default is one virtual
+ * thread per request, so a blocking repository never pins a platform thread;
+ * pass a fixed pool to compare against the classic thread-per-request model.
+ */
+final class UserHttpServer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(UserHttpServer.class);
+    private static final String FORM_CONTENT_TYPE = "application/x-www-form-urlencoded";
+    private static final int MAX_BODY_BYTES = 8 * 1024;
+
+    private final UserService userService;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private UserHttpServer(UserService userService, HttpServer server, ExecutorService executor) {
+        this.userService = userService;
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts a server on an ephemeral loopback port with one virtual thread per request.
+     */
+    public static UserHttpServer start(UserService userService) throws IOException {
+        return start(userService, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Starts a server on an ephemeral loopback port; the server owns the executor
+     * and shuts it down on {@link #close()}.
+     */
+    public static UserHttpServer start(UserService userService, ExecutorService executor) throws IOException {
+        Objects.requireNonNull(userService, "UserService cannot be null");
+        Objects.requireNonNull(executor, "Executor cannot be null");
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        UserHttpServer httpServer = new UserHttpServer(userService, server, executor);
+        server.createContext("/signup", exchange -> handle(exchange, httpServer::signUp));
+        server.createContext("/login", exchange -> handle(exchange, httpServer::login));
+        server.setExecutor(executor);
+        server.start();
+        logger.info("User HTTP server listening on {}", httpServer.baseUri());
+        return httpServer;
+    }
+
+    public String baseUri() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    /**
+     * Checks and parses the form, then runs the endpoint. Every exchange gets
+     * a status: an exception escaping here would close it without one.
+     */
+    private static void handle(HttpExchange exchange, FormHandler handler) throws IOException {
+        try (exchange) {
+            if (!isFormPost(exchange)) {
+                return;
+            }
+            Map<String, String> form;
+            try {
+                form = readForm(exchange);
+            } catch (BodyTooLargeException e) {
+                respond(exchange, 413, "Body exceeds " + MAX_BODY_BYTES + " bytes");
+                return;
+            } catch (IllegalArgumentException e) {
+                respond(exchange, 400, "Malformed form body");
+                return;
+            }
+            try {
+                handler.handle(exchange, form);
+            } catch (RuntimeException e) {
+                logger.error("Unexpected failure on {}", exchange.getRequestURI(), e);
+                respond(exchange, 500, "Internal server error");
+            }
+        }
+    }
+
+    private void signUp(HttpExchange exchange, Map<String, String> form) throws IOException {
+        String password = form.get("password");
+        try {
+            User user = userService.signUp(form.get("name"), form.get("email"),
+                    password == null ? null : password.toCharArray());
+            respond(exchange, 201, user.id().toString());
+        } catch (UserServiceBusyException e) {
+            respond(exchange, 503, e.getMessage());
+        } catch (UserServiceException e) {
+            respond(exchange, 400, e.getMessage());
+        }
+    }
+
+    private void login(HttpExchange exchange, Map<String, String> form) throws IOException {
+        String password = form.get("password");
+        if (form.get("email") == null || password == null) {
+            respond(exchange, 400, "email and password are required");
+            return;
+        }
+        try {
+            userService.login(form.get("email"), password.toCharArray());
+            exchange.sendResponseHeaders(204, -1);
+        } catch (UserServiceThrottledException e) {
+            respond(exchange, 429, e.getMessage());
+        } catch (UserServiceBusyException e) {
+            respond(exchange, 503, e.getMessage());
+        } catch (UserServiceException e) {
+            respond(exchange, 401, e.getMessage());
+        }
+    }
+
+    private static boolean isFormPost(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, "POST only");
+            return false;
+        }
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType == null || !contentType.startsWith(FORM_CONTENT_TYPE)) {
+            respond(exchange, 415, "Expected " + FORM_CONTENT_TYPE);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @throws BodyTooLargeException    if the body exceeds {@value #MAX_BODY_BYTES} bytes
+     * @throws IllegalArgumentException if a name or value is not valid form encoding
+     */
+    private static Map<String, String> readForm(HttpExchange exchange) throws IOException {
+        String body;
+        try (InputStream in = exchange.getRequestBody()) {
+            // Never buffer more than the cap, whatever Content-Length claims
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new BodyTooLargeException();
+            }
+            body = new String(bytes, StandardCharsets.UTF_8);
+        }
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                form.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return form;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String message) throws IOException {
+        byte[] body = message.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @FunctionalInterface
+    private interface FormHandler {
+        void handle(HttpExchange exchange, Map<String, String> form) throws IOException;
+    }
+
+    private static final class BodyTooLargeException extends IOException {
+    }
+}
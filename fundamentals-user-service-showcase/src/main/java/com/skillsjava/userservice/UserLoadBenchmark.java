@@ -0,0 +1,203 @@
+package com.skillsjava.userservice;
+
+import ch.qos.logback.classic.Level;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+/**
+ * BENCHMARK: Open-model HTTP load against {@link UserHttpServer} on loopback.
+ * <p>
+ * Runs the same signup/login mix against a virtual-thread server and a
+ * platform-thread pool server, then prints throughput and latency
+ * percentiles for each. Requests are sent at a constant arrival rate:
+ * request {@code i} is due at {@code start + i / rate} whether or not
+ * earlier ones have been answered. A closed loop of clients would stop
+ * sending while the server stalls and so never measure the requests real
+ * users would have sent meanwhile (coordinated omission). Response time is
+ * therefore measured from each request's intended start; service time, from
+ * its actual send, is printed next to it to show what a closed loop would
+ * have reported. Arguments (all optional):
+ * {@code requestsPerSecond seconds signupPercent platformThreads}.
+ */
+public final class UserLoadBenchmark {
+    private static final int REGISTERED_USERS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        double rate = args.length > 0 ? Double.parseDouble(args[0]) : 2_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int signupPercent = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int platformThreads = args.length > 3 ? Integer.parseInt(args[3]) : 32;
+
+        // Per-request DEBUG/INFO logging would dominate the measurement
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(Level.WARN);
+
+        System.out.printf("=== UserService HTTP load: %,.0f req/s, %d s, %d%% signup ===%n%n",
+                rate, seconds, signupPercent);
+
+        run("Virtual threads", Executors.newVirtualThreadPerTaskExecutor(), rate, seconds, signupPercent);
+        run("Platform pool (" + platformThreads + ")", Executors.newFixedThreadPool(platformThreads),
+                rate, seconds, signupPercent);
+    }
+
+    private static void run(String label, ExecutorService serverExecutor, double rate, int seconds,
+            int signupPercent) throws Exception {
+        // Low iteration count: this measures the request path, not PBKDF2 itself
+        UserService service = new UserService(new ConcurrentUserRepository(), new Pbkdf2PasswordHasher(1_000));
+        service.signUpAll(IntStream.range(0, REGISTERED_USERS)
+                .mapToObj(i -> new SignUpRequest("User " + i, "user" + i + "@example.com",
+                        ("password-" + i).toCharArray())));
+
+        try (UserHttpServer server = UserHttpServer.start(service, serverExecutor);
+                ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientThreads)
+                    .build();
+            Load load = new Load(http, URI.create(server.baseUri()), signupPercent);
+
+            load.drive(rate, Duration.ofSeconds(Math.max(1, seconds / 5)), clientThreads); // warm-up
+            load.errors.set(0);
+            long start = System.nanoTime();
+            Samples samples = load.drive(rate, Duration.ofSeconds(seconds), clientThreads);
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+            long[] response = samples.responseTimes();
+            long[] serviceTimes = samples.serviceTimes();
+            Arrays.sort(response);
+            Arrays.sort(serviceTimes);
+            System.out.printf("%-22s %,9.0f req/s  response p50 %7.2f ms  p99 %7.2f ms  p999 %7.2f ms"
+                            + "  (service p99 %7.2f ms)  late %d  errors %d%n",
+                    label, response.length / elapsedSeconds, percentile(response, 50),
+                    percentile(response, 99), percentile(response, 99.9), percentile(serviceTimes, 99),
+                    samples.lateDispatches(), load.errors.get());
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1_000_000.0;
+    }
+
+    /**
+     * Latencies of one load phase, in nanoseconds.
+     *
+     * @param responseTimes  completion minus intended start
+     * @param serviceTimes   completion minus actual send
+     * @param lateDispatches requests sent more than one interval after their intended start
+     */
+    private record Samples(long[] responseTimes, long[] serviceTimes, long lateDispatches) {
+    }
+
+    /**
+     * One load phase: requests are dispatched on schedule, each on its own
+     * virtual thread, however many are still in flight.
+     */
+    private static final class Load {
+        private final HttpClient http;
+        private final URI signUp;
+        private final URI login;
+        private final int signupPercent;
+        private final AtomicLong sequence = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+
+        Load(HttpClient http, URI base, int signupPercent) {
+            this.http = http;
+            this.signUp = base.resolve("/signup");
+            this.login = base.resolve("/login");
+            this.signupPercent = signupPercent;
+        }
+
+        Samples drive(double rate, Duration duration, ExecutorService clientThreads) throws Exception {
+            int requests = (int) Math.max(1, Math.min(Integer.MAX_VALUE, rate * duration.toNanos() / 1e9));
+            double intervalNanos = 1e9 / rate;
+            long[] responseTimes = new long[requests];
+            long[] serviceTimes = new long[requests];
+            long lateDispatches = 0;
+            CountDownLatch finished = new CountDownLatch(requests);
+            SplittableRandom random = new SplittableRandom(requests);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                long intendedStart = start + (long) (i * intervalNanos);
+                long wait = intendedStart - System.nanoTime();
+                if (wait < -intervalNanos) {
+                    lateDispatches++;
+                }
+                // Parking can wake early; never send before the intended time
+                while (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                    wait = intendedStart - System.nanoTime();
+                }
+                HttpRequest request = random.nextInt(100) < signupPercent ? signUpRequest() : loginRequest(random);
+                int index = i;
+                clientThreads.execute(() -> {
+                    long actualStart = System.nanoTime();
+                    try {
+                        int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        if (status >= 300) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        errors.incrementAndGet();
+                    } finally {
+                        long end = System.nanoTime();
+                        responseTimes[index] = end - intendedStart;
+                        serviceTimes[index] = end - actualStart;
+                        finished.countDown();
+                    }
+                });
+            }
+            if (!finished.await(duration.toSeconds() + 30, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Requests still in flight 30 s after the load phase");
+            }
+            return new Samples(responseTimes, serviceTimes, lateDispatches);
+        }
+
+        private HttpRequest signUpRequest() {
+            long n = sequence.incrementAndGet();
+            return post(signUp, "name=Load+User&email=" + encode("load" + n + "@example.com")
+                    + "&password=" + encode("load-password-" + n));
+        }
+
+        private HttpRequest loginRequest(SplittableRandom random) {
+            int user = random.nextInt(REGISTERED_USERS);
+            return post(login, "email=" + encode("user" + user + "@example.com")
+                    + "&password=" + encode("password-" + user));
+        }
+
+        private static HttpRequest post(URI uri, String form) {
+            return HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form))
+                    .build();
+        }
+
+        private static String encode(String value) {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8);
+        }
+    }
+}
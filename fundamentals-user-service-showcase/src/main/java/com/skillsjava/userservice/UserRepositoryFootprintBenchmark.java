@@ -0,0 +1,82 @@
+package com.skillsjava.userservice;
+
+import com.github.f4b6a3.uuid.UuidCreator;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * BENCHMARK: Heap footprint and findById latency per repository.
+ * <p>
+ * Fills each repository with the same synthetic users and reports retained
+ * heap per user (measured after a full GC) plus the average cost of a random
+ * {@code findById}. Numbers are indicative: run with a fixed heap, e.g.
+ * {@code -Xms4g -Xmx4g}, and pass the user count as first argument.
+ */
+public final class UserRepositoryFootprintBenchmark {
+    private static final int LOOKUP_KEYS = 100_000;
+    private static final int LOOKUPS = 2_000_000;
+
+    public static void main(String[] args) {
+        int users = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        System.out.println("=== UserRepository footprint benchmark (" + users + " users) ===\n");
+
+        run("HashMap (InMemoryUserRepository)", InMemoryUserRepository::new, users);
+        run("Primitive (CompactUserRepository)", () -> new CompactUserRepository(users), users);
+    }
+
+    private static void run(String label, Supplier<UserRepository> factory, int users) {
+        UUID[] keys = new UUID[LOOKUP_KEYS];
+        long before = usedHeap();
+
+        UserRepository repository = factory.get();
+        int stride = Math.max(1, users / LOOKUP_KEYS);
+        for (int i = 0; i < users; i++) {
+            UUID id = UuidCreator.getTimeOrderedEpoch();
+            repository.save(new User(id, "User " + i, "user" + i + "@example.com",
+                    "0123456789abcdef".toCharArray()));
+            if (i % stride == 0 && i / stride < LOOKUP_KEYS) {
+                keys[i / stride] = id;
+            }
+        }
+
+        long retained = usedHeap() - before;
+        int present = 0;
+        while (present < keys.length && keys[present] != null) {
+            present++;
+        }
+
+        // Warm-up, then measure
+        SplittableRandom random = new SplittableRandom(42);
+        long sink = lookups(repository, keys, present, random, LOOKUPS / 4);
+        long start = System.nanoTime();
+        sink += lookups(repository, keys, present, random, LOOKUPS);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%-36s heap: %,d bytes/user (%,d MB total), findById: %.1f ns/op [%d]%n",
+                label, retained / users, retained >> 20, (double) elapsed / LOOKUPS, sink & 1);
+
+        // Keep the repository reachable until after the measurement
+        if (repository.findById(keys[0]).isEmpty()) {
+            throw new IllegalStateException("Lookup key lost");
+        }
+    }
+
+    private static long lookups(UserRepository repository, UUID[] keys, int present,
+            SplittableRandom random, int count) {
+        long sink = 0;
+        for (int i = 0; i < count; i++) {
+            sink += repository.findById(keys[random.nextInt(present)]).map(u -> u.name().length()).orElse(0);
+        }
+        return sink;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
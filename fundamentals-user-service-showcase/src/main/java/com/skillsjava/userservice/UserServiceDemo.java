@@ -1,10 +1,20 @@
 package com.skillsjava.userservice;
 
 import com.github.f4b6a3.uuid.UuidCreator;
+import com.github.f4b6a3.uuid.factory.rfc4122.TimeOrderedEpochFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 /**
  * SHOWCASE: High-Quality UserService.
@@ -21,19 +31,30 @@ public class UserServiceDemo {
     public static void main(String[] args) {
         System.out.println("=== Best Practices UserService Demo ===\n");
 
-        UserRepository repository = new InMemoryUserRepository();
-        UserService userService = new UserService(repository);
-
-        try {
+        // Decorators: unknown emails are answered by the Bloom filter alone,
+        // hot accounts by the cache in front of it
+        BloomFilterUserRepository emailFilter =
+                new BloomFilterUserRepository(new ConcurrentUserRepository(), 10_000, 0.01);
+        CachingUserRepository repository = new CachingUserRepository(emailFilter, 10_000, Duration.ofMinutes(5));
+        // PBKDF2 runs on one thread per core with a bounded queue in front
+        BoundedPasswordHasher hasher = new BoundedPasswordHasher(new Pbkdf2PasswordHasher());
+        // At most 5 login attempts per email per minute, 1000 per second overall
+        LoginRateLimiter loginRateLimiter = new LoginRateLimiter(5, Duration.ofMinutes(1), 1_000, Duration.ofSeconds(1));
+        // Idle limiter buckets are swept in the background, never on a login
+        ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor();
+        loginRateLimiter.scheduleEviction(maintenance, Duration.ofMinutes(1));
+        UserService userService = new UserService(repository, hasher, loginRateLimiter);
+
+        try (hasher; maintenance) {
             // 1. Sign Up
             System.out.println("1. Registering user...");
             char[] password = "securePassword123".toCharArray();
             User user = userService.signUp("Alice Smith", "alice@example.com", password);
             System.out.println("User registered: " + user.name() + " with ID: " + user.id());
 
-            // 2. Login
+            // 2. Login (emails are matched ignoring case and surrounding whitespace)
             System.out.println("\n2. Attempting login...");
-            userService.login("alice@example.com", "securePassword123".toCharArray());
+            userService.login(" Alice@Example.com", "securePassword123".toCharArray());
             System.out.println("Login successful!");
 
             // 3. Find User
@@ -41,10 +62,87 @@ public class UserServiceDemo {
             userService.findById(user.id())
                     .ifPresent(u -> System.out.println("Found: " + u.name() + " (" + u.email() + ")"));
 
+            // 4. Concurrent Sign Up (same email, many threads)
+            System.out.println("\n4. Racing sign-ups for the same email...");
+            System.out.println("Accounts created: " + raceSignUps(userService, "bob@example.com", 8));
+
+            // 5. Bulk import (partner feed with bad and duplicate rows)
+            System.out.println("\n5. Importing a partner feed...");
+            SignUpReport report = userService.signUpAll(Stream.of(
+                    new SignUpRequest("Carol", "carol@example.com", "carolPassword1".toCharArray()),
+                    new SignUpRequest("Dave", "dave-at-example.com", "davePassword1".toCharArray()),
+                    new SignUpRequest("Carol Again", "carol@example.com", "carolPassword2".toCharArray()),
+                    new SignUpRequest("Alice Clone", "alice@example.com", "alicePassword1".toCharArray()),
+                    new SignUpRequest("Erin", "erin@example.com", "erinPassword1".toCharArray())));
+            report.results().forEach(result -> System.out.println("  " + switch (result) {
+                case SignUpResult.Created created -> "#" + created.index() + " created " + created.user().id();
+                case SignUpResult.Rejected rejected -> "#" + rejected.index() + " rejected "
+                        + rejected.reason() + " (" + rejected.message() + ")";
+            }));
+
+            // 6. Credential stuffing: unknown emails never reach the store
+            System.out.println("\n6. Login with an unknown email...");
+            try {
+                userService.login("mallory@example.com", "guessedPassword".toCharArray());
+            } catch (UserServiceException e) {
+                System.out.println("Rejected: " + e.getMessage());
+            }
+
+            // 7. Brute force against one account: throttled before any hashing
+            System.out.println("\n7. Guessing Alice's password...");
+            for (int attempt = 1; attempt <= 6; attempt++) {
+                try {
+                    userService.login("alice@example.com", ("guess" + attempt + "xyz").toCharArray());
+                } catch (UserServiceThrottledException e) {
+                    System.out.println("Attempt " + attempt + " throttled: " + e.getMessage());
+                } catch (UserServiceException e) {
+                    System.out.println("Attempt " + attempt + " rejected: " + e.getMessage());
+                }
+            }
+
+            System.out.println("\nPassword hashing pool: " + hasher.metrics());
+            System.out.println("Email filter: " + emailFilter.stats());
+            System.out.println("User cache: " + repository.stats());
+            System.out.println("Login limiter: " + loginRateLimiter.stats());
+
         } catch (UserServiceException e) {
             System.err.println("Error: " + e.getMessage());
         }
     }
+
+    /**
+     * Fires the same sign-up from several threads at once.
+     * With an atomic repository exactly one of them must win.
+     */
+    private static int raceSignUps(UserService userService, String email, int threads) {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        List<Thread> racers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Thread racer = Thread.ofVirtual().unstarted(() -> {
+                try {
+                    start.await();
+                    userService.signUp("Bob", email, "anotherSecret1".toCharArray());
+                    created.incrementAndGet();
+                } catch (UserServiceException ignored) {
+                    // Expected for every thread but the winner
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            racers.add(racer);
+            racer.start();
+        }
+        start.countDown();
+        for (Thread racer : racers) {
+            try {
+                racer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return created.get();
+    }
 }
 
 /**
@@ -57,11 +155,30 @@ record User(UUID id, String name, String email, char[] passwordHash) {
 
 /**
  * CONTRACT: Repository interface for decoupling.
+ * Emails are indexed by their {@link EmailKey}, so lookups ignore case and
+ * surrounding whitespace. {@code findByEmail} may be given a reusable
+ * {@link EmailKey.Lookup} view, which implementations must not keep.
  */
 interface UserRepository {
     void save(User user);
 
-    Optional<User> findByEmail(String email);
+    /**
+     * Stores the user only if no other user owns the same email.
+     * Implementations must perform the check and the insert as one atomic step.
+     *
+     * @return true if the user was stored, false if the email is already taken
+     */
+    boolean saveIfEmailAbsent(User user);
+
+    /**
+     * Bulk variant of {@link #saveIfEmailAbsent(User)} for imports: every user
+     * whose email is still free is stored, in list order.
+     *
+     * @return the positions in {@code users} that were stored
+     */
+    BitSet saveAll(List<User> users);
+
+    Optional<User> findByEmail(EmailKey email);
 
     Optional<User> findById(UUID id);
 }
@@ -71,11 +188,25 @@ interface UserRepository {
  */
 final class UserService {
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+    private static final int IMPORT_CHUNK_SIZE = 1_000;
+    private static final int HASHING_PARALLELISM = Runtime.getRuntime().availableProcessors();
     private final UserRepository repository;
+    private final PasswordHasher passwordHasher;
+    private final LoginRateLimiter loginRateLimiter;
 
-    // Dependency Injection via Constructor
     public UserService(UserRepository repository) {
+        this(repository, new Pbkdf2PasswordHasher());
+    }
+
+    public UserService(UserRepository repository, PasswordHasher passwordHasher) {
+        this(repository, passwordHasher, LoginRateLimiter.unlimited());
+    }
+
+    // Dependency Injection via Constructor
+    public UserService(UserRepository repository, PasswordHasher passwordHasher, LoginRateLimiter loginRateLimiter) {
         this.repository = Objects.requireNonNull(repository, "Repository cannot be null");
+        this.passwordHasher = Objects.requireNonNull(passwordHasher, "PasswordHasher cannot be null");
+        this.loginRateLimiter = Objects.requireNonNull(loginRateLimiter, "LoginRateLimiter cannot be null");
     }
 
     /**
@@ -83,28 +214,27 @@ final class UserService {
      * Uses Guard Clauses for Fail-Fast validation.
      */
     public User signUp(String name, String email, char[] password) {
-        if (name == null || name.isBlank())
-            throw new UserServiceException("Name is required");
-        if (email == null || !email.contains("@"))
-            throw new UserServiceException("Invalid email");
-        if (password == null || password.length < 8)
-            throw new UserServiceException("Password too short");
-
-        if (repository.findByEmail(email).isPresent()) {
-            throw new UserServiceException("User already exists with email: " + email);
+        validate(name, email, password).ifPresent(error -> {
+            throw new UserServiceException(error);
+        });
+
+        EmailKey emailKey = EmailKey.of(email);
+        // Cheap pre-check so a taken email never costs a password hash;
+        // saveIfEmailAbsent below stays the authoritative claim
+        if (repository.findByEmail(emailKey).isPresent()) {
+            throw new UserServiceException("User already exists with email: " + emailKey);
         }
-
-        logger.info("Creating new user account for: {}", email);
+        logger.info("Creating new user account for: {}", emailKey);
 
         // UUIDv7: Best for B-tree DB indexes (Sequential)
         UUID userId = UuidCreator.getTimeOrderedEpoch();
 
-        // In a real scenario, we would hash the password here.
-        // We'll just "simulate" a hash.
-        char[] passwordHash = Arrays.copyOf(password, password.length);
+        User user = new User(userId, name, emailKey.value(), passwordHasher.hash(password));
 
-        User user = new User(userId, name, email, passwordHash);
-        repository.save(user);
+        // Atomic check-and-insert: no window between "email is free" and "save"
+        if (!repository.saveIfEmailAbsent(user)) {
+            throw new UserServiceException("User already exists with email: " + emailKey);
+        }
 
         // Security: Clear the sensitive data from memory as soon as possible
         Arrays.fill(password, ' ');
@@ -112,17 +242,181 @@ final class UserService {
         return user;
     }
 
+    /**
+     * Bulk registration for partner feeds.
+     * Records are processed in chunks: guard clauses, deduplication across the
+     * whole import and the already-registered check run before any password
+     * is hashed; the remaining hashes run in parallel, ids come
+     * from an import-local UUIDv7 factory (no contention with live sign-ups)
+     * and each chunk is stored with a single {@code saveAll}.
+     * Bad records and failed password hashes never abort the import; they
+     * are reported one by one.
+     */
+    public SignUpReport signUpAll(Iterable<SignUpRequest> requests) {
+        Objects.requireNonNull(requests, "Requests cannot be null");
+        TimeOrderedEpochFactory idFactory = new TimeOrderedEpochFactory();
+        Set<EmailKey> seenEmails = new HashSet<>();
+        List<SignUpResult> results = new ArrayList<>();
+        List<SignUpRequest> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+
+        for (SignUpRequest request : requests) {
+            chunk.add(request);
+            if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                importChunk(chunk, idFactory, seenEmails, results);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, idFactory, seenEmails, results);
+        }
+
+        SignUpReport report = new SignUpReport(results);
+        logger.info("Bulk sign-up finished: {} created, {} rejected", report.createdCount(), report.rejectedCount());
+        return report;
+    }
+
+    public SignUpReport signUpAll(Stream<SignUpRequest> requests) {
+        Objects.requireNonNull(requests, "Requests cannot be null");
+        return signUpAll(requests::iterator);
+    }
+
+    private void importChunk(List<SignUpRequest> chunk, TimeOrderedEpochFactory idFactory,
+            Set<EmailKey> seenEmails, List<SignUpResult> results) {
+        try {
+            results.addAll(Arrays.asList(importChunk(chunk, idFactory, seenEmails, results.size())));
+        } finally {
+            // Security: Clear the sensitive data from memory as soon as possible,
+            // even if the repository fails half-way through the import
+            for (SignUpRequest request : chunk) {
+                if (request.password() != null) {
+                    Arrays.fill(request.password(), ' ');
+                }
+            }
+        }
+    }
+
+    private SignUpResult[] importChunk(List<SignUpRequest> chunk, TimeOrderedEpochFactory idFactory,
+            Set<EmailKey> seenEmails, int firstIndex) {
+        int size = chunk.size();
+        SignUpResult[] outcomes = new SignUpResult[size];
+
+        // 1. Cheap checks first, in input order: a duplicate or taken email
+        // must not cost a password hash
+        EmailKey[] emailKeys = new EmailKey[size];
+        for (int i = 0; i < size; i++) {
+            SignUpRequest request = chunk.get(i);
+            Optional<String> error = validate(request.name(), request.email(), request.password());
+            if (error.isPresent()) {
+                outcomes[i] = new SignUpResult.Rejected(firstIndex + i, request.email(),
+                        SignUpResult.Reason.INVALID, error.get());
+                continue;
+            }
+            EmailKey emailKey = EmailKey.of(request.email());
+            if (!seenEmails.add(emailKey)) {
+                outcomes[i] = new SignUpResult.Rejected(firstIndex + i, request.email(),
+                        SignUpResult.Reason.DUPLICATE_IN_BATCH, "Duplicate email in import");
+            } else if (repository.findByEmail(emailKey).isPresent()) {
+                outcomes[i] = new SignUpResult.Rejected(firstIndex + i, request.email(),
+                        SignUpResult.Reason.EMAIL_TAKEN, "User already exists with email: " + emailKey);
+            } else {
+                emailKeys[i] = emailKey;
+            }
+        }
+
+        // 2. CPU-bound: hash the survivors on virtual threads, so waiting for a
+        // BoundedPasswordHasher never parks a common-pool thread; the semaphore
+        // keeps the import from flooding the hasher's queue
+        char[][] hashes = new char[size][];
+        Semaphore hashing = new Semaphore(HASHING_PARALLELISM);
+        Future<?>[] hashed = new Future<?>[size];
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < size; i++) {
+                if (emailKeys[i] == null) {
+                    continue;
+                }
+                int index = i;
+                hashed[i] = workers.submit(() -> {
+                    hashing.acquireUninterruptibly();
+                    try {
+                        hashes[index] = passwordHasher.hash(chunk.get(index).password());
+                    } catch (UserServiceBusyException e) {
+                        outcomes[index] = new SignUpResult.Rejected(firstIndex + index, chunk.get(index).email(),
+                                SignUpResult.Reason.BUSY, e.getMessage());
+                    } finally {
+                        hashing.release();
+                    }
+                });
+            }
+        }
+        // A hash that failed in any other way (including an Error) rejects its
+        // record only, so every record still gets a result
+        for (int i = 0; i < size; i++) {
+            if (hashed[i] != null && hashed[i].state() != Future.State.SUCCESS) {
+                Throwable failure = hashed[i].exceptionNow();
+                logger.warn("Password hashing failed for import record {}", firstIndex + i, failure);
+                outcomes[i] = new SignUpResult.Rejected(firstIndex + i, chunk.get(i).email(),
+                        SignUpResult.Reason.FAILED, "Password hashing failed: " + failure);
+            }
+        }
+
+        // ids are assigned in input order, from the import's own factory:
+        // there is no shared counter to contend on
+        List<User> batch = new ArrayList<>(size);
+        int[] batchPositions = new int[size];
+        for (int i = 0; i < size; i++) {
+            if (hashes[i] != null) {
+                batchPositions[batch.size()] = i;
+                batch.add(new User(idFactory.create(), chunk.get(i).name(), emailKeys[i].value(), hashes[i]));
+            }
+        }
+
+        // 3. One repository round-trip per chunk
+        BitSet stored = repository.saveAll(batch);
+        for (int j = 0; j < batch.size(); j++) {
+            User user = batch.get(j);
+            int i = batchPositions[j];
+            outcomes[i] = stored.get(j)
+                    ? new SignUpResult.Created(firstIndex + i, user)
+                    : new SignUpResult.Rejected(firstIndex + i, user.email(),
+                            SignUpResult.Reason.EMAIL_TAKEN, "User already exists with email: " + user.email());
+        }
+        return outcomes;
+    }
+
+    /**
+     * Guard clauses shared by single and bulk sign-up.
+     */
+    private static Optional<String> validate(String name, String email, char[] password) {
+        if (name == null || name.isBlank())
+            return Optional.of("Name is required");
+        if (email == null || !email.contains("@"))
+            return Optional.of("Invalid email");
+        if (password == null || password.length < 8)
+            return Optional.of("Password too short");
+        return Optional.empty();
+    }
+
     /**
      * Authenticates a user.
+     * Throttled attempts are refused before any repository or hashing work.
      */
     public void login(String email, char[] password) {
         logger.debug("Login attempt for email: {}", email);
+        if (email == null) {
+            throw new UserServiceException("Invalid credentials");
+        }
+        EmailKey emailKey = EmailKey.of(email);
+
+        // Counted by the limiter, not logged: a storm must stay cheap to reject
+        if (!loginRateLimiter.tryAcquire(emailKey)) {
+            throw new UserServiceThrottledException("Too many login attempts, try again later");
+        }
 
-        User user = repository.findByEmail(email)
+        User user = repository.findByEmail(emailKey)
                 .orElseThrow(() -> new UserServiceException("Invalid credentials"));
 
-        // Compare password (In reality, compare the hash)
-        if (!Arrays.equals(user.passwordHash(), password)) {
+        // Constant-time comparison of the derived hash
+        if (!passwordHasher.verify(password, user.passwordHash())) {
             logger.warn("Failed login attempt for email: {}", email);
             throw new UserServiceException("Invalid credentials");
         }
@@ -145,21 +439,61 @@ class UserServiceException extends RuntimeException {
     }
 }
 
+/**
+ * ERROR HANDLING: The request was valid but the service is shedding load; retry later.
+ */
+class UserServiceBusyException extends UserServiceException {
+    public UserServiceBusyException(String message) {
+        super(message);
+    }
+}
+
+/**
+ * ERROR HANDLING: The caller exceeded a rate limit; retry after it refills.
+ */
+class UserServiceThrottledException extends UserServiceException {
+    public UserServiceThrottledException(String message) {
+        super(message);
+    }
+}
+
 /**
  * INFRASTRUCTURE: Simple implementation for demo.
+ * Not thread-safe: use {@link ConcurrentUserRepository} when signing up from
+ * multiple threads.
  */
 class InMemoryUserRepository implements UserRepository {
     private final Map<UUID, User> usersById = new HashMap<>();
-    private final Map<String, User> usersByEmail = new HashMap<>();
+    private final Map<EmailKey, User> usersByEmail = new HashMap<>();
 
     @Override
     public void save(User user) {
         usersById.put(user.id(), user);
-        usersByEmail.put(user.email(), user);
+        usersByEmail.put(EmailKey.of(user.email()), user);
+    }
+
+    @Override
+    public boolean saveIfEmailAbsent(User user) {
+        if (usersByEmail.containsKey(EmailKey.of(user.email()))) {
+            return false;
+        }
+        save(user);
+        return true;
+    }
+
+    @Override
+    public BitSet saveAll(List<User> users) {
+        BitSet stored = new BitSet(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            if (saveIfEmailAbsent(users.get(i))) {
+                stored.set(i);
+            }
+        }
+        return stored;
     }
 
     @Override
-    public Optional<User> findByEmail(String email) {
+    public Optional<User> findByEmail(EmailKey email) {
         return Optional.ofNullable(usersByEmail.get(email));
     }
 